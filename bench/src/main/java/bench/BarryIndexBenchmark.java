@@ -0,0 +1,78 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shows where the indexed mode of BarryList (BarryList.setIndexed) pays for itself. contains is timed with and without
+ * the index, and build times turning the index on for the whole list. Run it with the gc profiler so that build also
+ * gives the bytes the index takes (gc.alloc.rate.norm, divided by size for the bytes per element):
+ * {@code java -jar target/benchmarks.jar BarryIndexBenchmark -prof gc}
+ *
+ * <p>The index has saved more time than it took to build after build / (scan contains - indexed contains) lookups.
+ * setIndexed is called through reflection (see {@link Lists} for why), but only in setup and in build, where it is
+ * small next to building the index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class BarryIndexBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean indexed;
+
+    private List<Integer> list;
+    private Method setIndexed;
+    private Integer[] values; // half of them are in the list and half are not
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws ReflectiveOperationException {
+        list = Lists.shuffled("BarryList", size, 42);
+        setIndexed = list.getClass().getMethod("setIndexed", boolean.class);
+        setIndexed.invoke(list, indexed);
+        values = new Integer[1024];
+        Random random = new Random(7);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 2 == 0 ? random.nextInt(size) : size + random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public boolean contains() {
+        next = (next + 1) & (values.length - 1);
+        return list.contains(values[next]);
+    }
+
+    /**
+     * Turns the index off and back on, which builds it from scratch. It is the same for both values of indexed.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Integer> build() throws ReflectiveOperationException {
+        setIndexed.invoke(list, false);
+        setIndexed.invoke(list, true);
+        return list;
+    }
+}
@@ -0,0 +1,153 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares BarryList against {@link java.util.ArrayList} for the operations we use on hot paths, for lists of 10 up
+ * to 10^7 elements. Run it with the gc profiler to also get the allocation rate of each operation:
+ * {@code java -jar target/benchmarks.jar BarryListBenchmark -prof gc}
+ *
+ * <p>The benchmarks that change the list undo their change in the same invocation (add(int, T) is followed by a
+ * remove from the end, remove(int) by an add to the end) so that the size stays the same. The ones that can not be
+ * undone cheaply (removeAll and sort) get a fresh copy of the list before every invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BarryListBenchmark {
+
+    @State(Scope.Thread)
+    public static class ListState {
+        @Param({"BarryList", "ArrayList"})
+        public String implementation;
+
+        @Param({"10", "1000", "100000", "10000000"})
+        public int size;
+
+        List<Integer> list;
+        int[] indexes; // random indexes, so get is not just reading the array in order
+        Integer[] values; // half of them are in the list and half are not
+        int next;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            list = Lists.shuffled(implementation, size, 42);
+            indexes = new int[1024];
+            values = new Integer[1024];
+            Random random = new Random(7);
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i] = random.nextInt(size);
+                values[i] = i % 2 == 0 ? random.nextInt(size) : size + random.nextInt(size);
+            }
+        }
+
+        int nextIndex() {
+            next = (next + 1) & (indexes.length - 1);
+            return indexes[next];
+        }
+
+        Integer nextValue() {
+            next = (next + 1) & (values.length - 1);
+            return values[next];
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class CopyState {
+        @Param({"BarryList", "ArrayList"})
+        public String implementation;
+
+        @Param({"10", "1000", "100000", "10000000"})
+        public int size;
+
+        List<Integer> source;
+        List<Integer> list;
+        Set<Integer> removed; // every tenth value
+
+        @Setup(Level.Trial)
+        public void setupTrial() {
+            source = Lists.shuffled(implementation, size, 42);
+            removed = new HashSet<>();
+            for (int i = 0; i < size; i += 10) {
+                removed.add(i);
+            }
+        }
+
+        @Setup(Level.Invocation)
+        public void setupInvocation() {
+            list = Lists.create(implementation, size);
+            list.addAll(source);
+        }
+    }
+
+    @Benchmark
+    public List<Integer> add(ListState state) {
+        // building a whole list one element at a time, starting from the default capacity
+        List<Integer> list = Lists.create(state.implementation, 10);
+        for (int i = 0; i < state.size; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public void addAtIndex(ListState state) {
+        List<Integer> list = state.list;
+        list.add(list.size() / 2, -1);
+        list.remove(list.size() - 1);
+    }
+
+    @Benchmark
+    public Integer get(ListState state) {
+        return state.list.get(state.nextIndex());
+    }
+
+    @Benchmark
+    public void iterate(ListState state, Blackhole blackhole) {
+        for (Integer value : state.list) {
+            blackhole.consume(value);
+        }
+    }
+
+    @Benchmark
+    public void remove(ListState state) {
+        List<Integer> list = state.list;
+        list.add(list.remove(list.size() / 2));
+    }
+
+    @Benchmark
+    public boolean contains(ListState state) {
+        return state.list.contains(state.nextValue());
+    }
+
+    @Benchmark
+    public boolean removeAll(CopyState state) {
+        return state.list.removeAll(state.removed);
+    }
+
+    @Benchmark
+    public List<Integer> sort(CopyState state) {
+        state.list.sort(null);
+        return state.list;
+    }
+}
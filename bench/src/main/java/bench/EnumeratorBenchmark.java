@@ -0,0 +1,88 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import truth.LogicalSentence;
+import truth.ParallelEnumerator;
+import truth.SentenceParser;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how {@link ParallelEnumerator} scales with the amount of threads it gets, going through the whole truth
+ * table of a random sentence with {@link #variables} variables: {@code java -jar target/benchmarks.jar
+ * EnumeratorBenchmark -p threads=1,2,4,8}
+ *
+ * <p>Running with more threads than the machine has cores only shows the cost of splitting the work up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EnumeratorBenchmark {
+
+    private static final String[] OPERATORS = {" & ", " | ", " => ", " <= ", " <=> "};
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"24"})
+    public int variables;
+
+    @Param({"64"})
+    public int operators;
+
+    private ForkJoinPool pool;
+    private ParallelEnumerator enumerator;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i <= operators; i++) {
+            if (i > 0) {
+                text.append(OPERATORS[random.nextInt(OPERATORS.length)]);
+            }
+            if (random.nextBoolean()) {
+                text.append('~');
+            }
+            // the first variables letters all show up, so the table really has 2^variables rows
+            text.append((char) ('a' + (i < variables ? i : random.nextInt(variables))));
+        }
+        LogicalSentence sentence = SentenceParser.parse(text);
+        pool = new ForkJoinPool(threads);
+        enumerator = new ParallelEnumerator(sentence, pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long count() {
+        return enumerator.countTrue();
+    }
+
+    @Benchmark
+    public long stream() {
+        long[] sum = new long[1];
+        enumerator.forEachTrue(row -> sum[0] += row);
+        return sum[0];
+    }
+}
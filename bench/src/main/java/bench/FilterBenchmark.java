@@ -0,0 +1,85 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shows how Filter.parallelFilter scales with the amount of threads, compared to the sequential Filter.filter. Each
+ * parallelism gets its own {@link ForkJoinPool} so that the scaling can be measured on one machine:
+ * {@code java -jar target/benchmarks.jar FilterBenchmark}
+ *
+ * <p>Filter is in the default package, so (like BarryList in {@link Lists}) it is loaded by name and called through
+ * reflection. That only adds a constant amount of time per call, which does not matter for strings this long.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class FilterBenchmark {
+
+    @Param({"1000000", "50000000"})
+    public int length;
+
+    @Param({"1", "3"})
+    public int checkLength;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private Object filter;
+    private Method sequential;
+    private Method parallel;
+    private ForkJoinPool pool;
+    private String str;
+    private String check;
+
+    @Setup(Level.Trial)
+    public void setup() throws ReflectiveOperationException {
+        Class<?> type = Class.forName("Filter");
+        filter = type.getConstructor().newInstance();
+        sequential = type.getMethod("filter", String.class, String.class);
+        parallel = type.getMethod("parallelFilter", String.class, String.class, ForkJoinPool.class);
+        pool = new ForkJoinPool(parallelism);
+
+        Random random = new Random(42);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        str = new String(chars);
+        check = "mmm".substring(0, checkLength);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object sequential() throws ReflectiveOperationException {
+        return sequential.invoke(filter, str, check);
+    }
+
+    @Benchmark
+    public Object parallel() throws ReflectiveOperationException {
+        return parallel.invoke(filter, str, check, pool);
+    }
+}
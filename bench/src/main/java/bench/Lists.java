@@ -0,0 +1,58 @@
+package bench;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Makes the lists being compared. JMH does not allow benchmarks in the default package, and classes in the default
+ * package can not be imported, so BarryList is loaded by name and only used through the {@link List} interface (which
+ * is also how it is used everywhere else).
+ */
+final class Lists {
+
+    private Lists() {
+    }
+
+    /**
+     * @param implementation "ArrayList" or the name of a class in code/ with an (int initialSize) constructor
+     * @param initialSize The initial capacity of the list
+     * @return A new empty list
+     */
+    static <T> List<T> create(String implementation, int initialSize) {
+        if (implementation.equals("ArrayList")) {
+            return new ArrayList<>(initialSize);
+        }
+        try {
+            return (List<T>) Class.forName(implementation).getConstructor(int.class).newInstance(initialSize);
+        } catch (ClassNotFoundException | NoSuchMethodException | InstantiationException | IllegalAccessException
+                | InvocationTargetException e) {
+            throw new IllegalArgumentException(String.format("Can not make a %s", implementation), e);
+        }
+    }
+
+    /**
+     * @return A new list holding 0 to size - 1 in a random order
+     */
+    static List<Integer> shuffled(String implementation, int size, long seed) {
+        // shuffling an int[] instead of the list, so that the list is filled only using add
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+        }
+        Random random = new Random(seed);
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int hold = values[i];
+            values[i] = values[j];
+            values[j] = hold;
+        }
+
+        List<Integer> list = create(implementation, size);
+        for (int value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,96 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import truth.LogicalSentence;
+import truth.SentenceParser;
+import truth.TruthAssignment;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Compares evaluating a {@link LogicalSentence} with {@link LogicalSentence#getValue(TruthAssignment)} against
+ * evaluating the predicate made by {@link LogicalSentence#compile()}, for random sentences with more and more
+ * operators: {@code java -jar target/benchmarks.jar SentenceBenchmark}
+ *
+ * <p>Each invocation evaluates the sentence once, for the next of {@link #ASSIGNMENTS} random truth assignments.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SentenceBenchmark {
+
+    private static final int ASSIGNMENTS = 1024;
+    private static final String[] OPERATORS = {" & ", " | ", " => ", " <= ", " <=> "};
+
+    @Param({"4", "32", "256"})
+    public int operators;
+
+    @Param({"10"})
+    public int variables;
+
+    private LogicalSentence sentence;
+    private Predicate<TruthAssignment> compiled;
+    private TruthAssignment[] assignments;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i <= operators; i++) {
+            if (i > 0) {
+                text.append(OPERATORS[random.nextInt(OPERATORS.length)]);
+            }
+            if (random.nextBoolean()) {
+                text.append('~');
+            }
+            text.append((char) ('a' + random.nextInt(variables)));
+        }
+        sentence = SentenceParser.parse(text);
+        compiled = sentence.compile();
+
+        String[] names = new String[variables];
+        for (int i = 0; i < variables; i++) {
+            names[i] = String.valueOf((char) ('a' + i));
+        }
+        assignments = new TruthAssignment[ASSIGNMENTS];
+        for (int i = 0; i < ASSIGNMENTS; i++) {
+            boolean[] values = new boolean[variables];
+            for (int j = 0; j < variables; j++) {
+                values[j] = random.nextBoolean();
+            }
+            assignments[i] = new TruthAssignment(names, values);
+        }
+    }
+
+    private TruthAssignment nextAssignment() {
+        next = (next + 1) & (ASSIGNMENTS - 1);
+        return assignments[next];
+    }
+
+    @Benchmark
+    public boolean interpreted() {
+        return sentence.getValue(nextAssignment());
+    }
+
+    @Benchmark
+    public boolean compiled() {
+        return compiled.test(nextAssignment());
+    }
+}
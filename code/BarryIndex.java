@@ -0,0 +1,208 @@
+import java.util.Arrays;
+
+/**
+ * The lookup index behind {@link BarryList#setIndexed(boolean)}. It is an open addressing hash map (with linear
+ * probing) from each distinct element of a list to the sorted positions it is found at. Most elements are only in a
+ * list once, so a single position is stored directly in {@link #single}, and an {@link IntBarryList} of positions is
+ * only made for elements that are in the list more than once.
+ *
+ * <p>The list is in charge of telling the index about every change. Positions have to be kept sorted, so whenever the
+ * list moves elements it has to shift their positions in the same order it moves them.
+ */
+final class BarryIndex {
+
+    private static final Object NULL_KEY = new Object(); // stands in for null elements, null means an empty slot
+    private static final int MIN_CAPACITY = 16;
+
+    private Object[] keys;
+    private int[] single; // the position of a key that is only in the list once
+    private IntBarryList[] multiple; // the sorted positions of a key that is in the list more than once, or null
+    private int count; // the amount of distinct keys
+
+    BarryIndex(Object[] arr, int size) {
+        rebuild(arr, size);
+    }
+
+    /**
+     * Throws the index away and makes it again from the first size elements of arr.
+     */
+    void rebuild(Object[] arr, int size) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < size * 2) {
+            capacity <<= 1;
+        }
+        keys = new Object[capacity];
+        single = new int[capacity];
+        multiple = new IntBarryList[capacity];
+        count = 0;
+        for (int i = 0; i < size; i++) {
+            append(arr[i], i);
+        }
+    }
+
+    private static Object mask(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    private int home(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (keys.length - 1); // mixing in the high bits the same way HashMap does
+    }
+
+    /**
+     * @return The slot holding key, or the empty slot where it would go
+     */
+    private int slot(Object key) {
+        int i = home(key);
+        while (keys[i] != null && !keys[i].equals(key)) {
+            i = (i + 1) & (keys.length - 1);
+        }
+        return i;
+    }
+
+    private void resize() {
+        Object[] oldKeys = keys;
+        int[] oldSingle = single;
+        IntBarryList[] oldMultiple = multiple;
+        keys = new Object[oldKeys.length * 2];
+        single = new int[keys.length];
+        multiple = new IntBarryList[keys.length];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                single[slot] = oldSingle[i];
+                multiple[slot] = oldMultiple[i];
+            }
+        }
+    }
+
+    /**
+     * Removes the key in slot. Linear probing can not just empty the slot, because that would hide any key that was
+     * pushed past it, so the keys after it are moved back into the hole until an empty slot is found.
+     */
+    private void delete(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        int i = slot;
+        while (true) {
+            i = (i + 1) & mask;
+            if (keys[i] == null) {
+                break;
+            }
+            int home = home(keys[i]);
+            // the key in i can be moved into the hole if the hole is between its home slot and i
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                single[hole] = single[i];
+                multiple[hole] = multiple[i];
+                hole = i;
+            }
+        }
+        keys[hole] = null;
+        multiple[hole] = null;
+        count--;
+    }
+
+    /**
+     * @return The first position of o, or -1 if it is not in the list
+     */
+    int first(Object o) {
+        int slot = slot(mask(o));
+        if (keys[slot] == null) {
+            return -1;
+        }
+        return multiple[slot] == null ? single[slot] : multiple[slot].get(0);
+    }
+
+    /**
+     * @return The last position of o, or -1 if it is not in the list
+     */
+    int last(Object o) {
+        int slot = slot(mask(o));
+        if (keys[slot] == null) {
+            return -1;
+        }
+        IntBarryList positions = multiple[slot];
+        return positions == null ? single[slot] : positions.get(positions.size() - 1);
+    }
+
+    /**
+     * Adds a position for key that is larger than any position key already has.
+     */
+    void append(Object key, int position) {
+        insert(key, position, true);
+    }
+
+    /**
+     * Adds a position for key anywhere among the positions key already has.
+     */
+    void insert(Object key, int position) {
+        insert(key, position, false);
+    }
+
+    private void insert(Object key, int position, boolean last) {
+        key = mask(key);
+        int slot = slot(key);
+        if (keys[slot] == null) {
+            if ((count + 1) * 2 > keys.length) {
+                resize();
+                slot = slot(key);
+            }
+            keys[slot] = key;
+            single[slot] = position;
+            count++;
+            return;
+        }
+
+        IntBarryList positions = multiple[slot];
+        if (positions == null) {
+            positions = new IntBarryList(4);
+            positions.add(single[slot]);
+            multiple[slot] = positions;
+        }
+        if (last) {
+            positions.add(position);
+        } else {
+            positions.add(-positions.binarySearch(position) - 1, position);
+        }
+    }
+
+    /**
+     * Removes one of key's positions.
+     */
+    void remove(Object key, int position) {
+        int slot = slot(mask(key));
+        IntBarryList positions = multiple[slot];
+        if (positions == null) {
+            delete(slot);
+            return;
+        }
+        positions.removeAt(positions.binarySearch(position));
+        if (positions.size() == 1) {
+            single[slot] = positions.get(0);
+            multiple[slot] = null;
+        }
+    }
+
+    /**
+     * Changes one of key's positions from oldPosition to newPosition. The new position has to keep the positions in
+     * the same order, which is always true if the list moves a run of elements by the same amount and this is called
+     * in the order they are moved.
+     */
+    void move(Object key, int oldPosition, int newPosition) {
+        int slot = slot(mask(key));
+        IntBarryList positions = multiple[slot];
+        if (positions == null) {
+            single[slot] = newPosition;
+        } else {
+            positions.set(positions.binarySearch(oldPosition), newPosition);
+        }
+    }
+
+    void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(multiple, null);
+        count = 0;
+    }
+}
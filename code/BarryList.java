@@ -1,4 +1,6 @@
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Implementation of an {@link java.util.ArrayList}. Not all of the methods are implemented because I am not good at
@@ -7,9 +9,16 @@ import java.util.*;
 public class BarryList<T> implements List<T> {
 
     private static final int DEFAULT_SIZE = 10; // Using 10, because that is the default size in ArrayLists
+    private static final int DEFAULT_PARALLEL_SORT_THRESHOLD = 1 << 16;
+    private static final int INVERSE_31 = 0xbdef7bdf; // 31 * INVERSE_31 overflows to exactly 1, so it undoes a * 31
 
     private Object[] arr;
     private int size;
+    private int modCount; // counts structural changes, so iterators and spliterators can tell if the list changed
+    private int hash = 1; // the hash code of the list, only correct when hashValid is true
+    private boolean hashValid = true;
+    private BarryIndex lookup; // only used in indexed mode, see setIndexed
+    private int parallelSortThreshold = DEFAULT_PARALLEL_SORT_THRESHOLD;
 
     public BarryList() {
         this(DEFAULT_SIZE);
@@ -20,19 +29,50 @@ public class BarryList<T> implements List<T> {
         size = 0;
     }
 
-    private BarryList(Object[] arr, int size) {
-        this.arr = arr;
-        this.size = size;
-    }
-
-    private void optimize() {
-        for (int i = 0; i < size - 1; i++) {
-            if (arr[i] == null) {
-                // no need to check for out of bounds exception because we know that we are under size - 1
-                arr[i] = arr[i + 1];
-                arr[i + 1] = null;
+    /**
+     * Removes every element that filter matches in a single pass. A read cursor walks the whole array while a write
+     * cursor trails behind it, and each run of kept elements is slid down with one {@link System#arraycopy} call once
+     * the next removed element is found. Removing k of n elements is O(n) no matter how the removed elements are
+     * spread out, and the filter is only called once per element. If the filter throws, everything it has not finished
+     * looking at is kept.
+     * @param filter Returns true for the elements to be removed
+     * @return The amount of elements removed
+     */
+    private int compact(Predicate<? super T> filter) {
+        int read = 0;
+        int write = 0;
+        int runStart = 0; // the start of the run of kept elements that has not been moved yet
+        int removed = 0;
+        try {
+            while (read < size) {
+                if (filter.test((T) arr[read])) {
+                    int runLength = read - runStart;
+                    if (write != runStart) {
+                        System.arraycopy(arr, runStart, arr, write, runLength);
+                    }
+                    write += runLength;
+                    runStart = read + 1;
+                    removed++;
+                }
+                read++;
+            }
+        } finally {
+            // this also runs if the filter threw, so the list is left consistent with everything after it kept
+            int runLength = size - runStart;
+            if (write != runStart) {
+                System.arraycopy(arr, runStart, arr, write, runLength);
+            }
+            write += runLength;
+            if (removed > 0) {
+                // clearing the end so the removed elements can be garbage collected
+                Arrays.fill(arr, write, size, null);
+                size = write;
+                modCount++;
+                hashValid = false;
+                rebuildLookup();
             }
         }
+        return removed;
     }
 
 
@@ -48,12 +88,35 @@ public class BarryList<T> implements List<T> {
 
     @Override
     public boolean contains(Object o) {
-        for (int i = 0; i < size; i++) {
-            if (arr[i].equals(o)) {
-                return true;
-            }
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Turns indexed mode on or off. In indexed mode the list keeps a hash map from each element to the positions it
+     * is at (see {@link BarryIndex}), which makes {@link #contains(Object)}, {@link #indexOf(Object)},
+     * {@link #lastIndexOf(Object)} and {@link #remove(Object)} O(1) instead of O(n). The map is updated on every
+     * change: adding to the end or setting an element is O(1), adding or removing in the middle also moves the
+     * positions of every element after it (which is the same amount of work as moving the elements), and the rest
+     * (sorting, removeIf and friends) rebuild the map. It costs a few times the memory of the data array, so it is only
+     * worth it for lists that are searched a lot more often than they are changed in the middle.
+     * @param indexed If the list should be indexed
+     */
+    public void setIndexed(boolean indexed) {
+        if (indexed && lookup == null) {
+            lookup = new BarryIndex(arr, size);
+        } else if (!indexed) {
+            lookup = null;
+        }
+    }
+
+    public boolean isIndexed() {
+        return lookup != null;
+    }
+
+    private void rebuildLookup() {
+        if (lookup != null) {
+            lookup.rebuild(arr, size);
         }
-        return false;
     }
 
     @Override
@@ -74,107 +137,372 @@ public class BarryList<T> implements List<T> {
         };
     }
 
+    /**
+     * Runs action on every element with a plain indexed loop over the data array, which is faster than going through
+     * {@link #iterator()}.
+     * @param action The action to run on each element
+     */
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        Object[] a = arr;
+        int n = size;
+        for (int i = 0; i < n && modCount == expectedModCount; i++) {
+            action.accept((T) a[i]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Returns a {@link Spliterator} that works directly on the data array. It knows its exact size and splits itself
+     * in half every time, so {@link #parallelStream()} gets balanced pieces of work for each thread.
+     * @return A spliterator that is {@link Spliterator#SIZED}, {@link Spliterator#SUBSIZED} and
+     * {@link Spliterator#ORDERED}
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new BarrySpliterator(0, -1, 0);
+    }
+
+    /**
+     * Spliterator over the data array. The end of the range is only looked up once the spliterator is first used, so
+     * elements that were added between creating the spliterator and using it are still included.
+     */
+    private final class BarrySpliterator implements Spliterator<T> {
+        private int index; // the next index to use
+        private int fence; // one past the last index to use, -1 until it is first used
+        private int expectedModCount;
+
+        BarrySpliterator(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                expectedModCount = modCount;
+                fence = size;
+            }
+            return fence;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int hi = getFence();
+            int lo = index;
+            int mid = (lo + hi) >>> 1;
+            if (lo >= mid) {
+                return null; // too small to split
+            }
+            index = mid;
+            return new BarrySpliterator(lo, mid, expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            if (index >= hi) {
+                return false;
+            }
+            T element = (T) arr[index];
+            index++;
+            action.accept(element);
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            Object[] a = arr;
+            for (int i = index; i < hi; i++) {
+                action.accept((T) a[i]);
+            }
+            index = hi;
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
     @Override
     public Object[] toArray() {
-        return arr;
+        return Arrays.copyOf(arr, size);
     }
 
     @Override
     public <T1> T1[] toArray(T1[] a) {
-        return null; // TODO: read the docs on what this is supposed to do
+        if (a.length < size) {
+            return (T1[]) Arrays.copyOf(arr, size, a.getClass());
+        }
+        System.arraycopy(arr, 0, a, 0, size);
+        if (a.length > size) {
+            a[size] = null; // the docs say the element after the end of the list has to be set to null
+        }
+        return a;
+    }
+
+    /**
+     * Grows the data array so it can hold at least minCapacity elements. It is doubled if that is enough, so adding
+     * one element at a time is still amortized O(1), and grown straight to minCapacity if it is not, so a bulk add
+     * only ever has to grow it once.
+     */
+    private void grow(int minCapacity) {
+        int newLength = Math.max(arr.length * 2, DEFAULT_SIZE); // doubling our data array's size
+        arr = Arrays.copyOf(arr, Math.max(newLength, minCapacity));
+    }
+
+    /**
+     * Makes sure the data array can hold at least minCapacity elements, so that many elements can be added without
+     * having to grow it more than this one time.
+     * @param minCapacity The amount of elements the list should be able to hold
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > arr.length) {
+            grow(minCapacity);
+        }
+    }
+
+    /**
+     * Shrinks the data array to the size of the list, to give back the memory that is not being used.
+     */
+    public void trimToSize() {
+        if (size < arr.length) {
+            arr = Arrays.copyOf(arr, size);
+        }
     }
 
     @Override
     public boolean add(T t) {
         if (arr.length == size) {
             // The length of our BarryList is the size of our actual data array
-            arr = Arrays.copyOf(arr, arr.length * 2); // doubling our data array's size
+            grow(size + 1);
         }
         arr[size] = t;
         size++;
+        modCount++;
+        if (lookup != null) {
+            lookup.append(t, size - 1);
+        }
+        if (hashValid) {
+            hash = 31 * hash + Objects.hashCode(t);
+        }
         return true;
     }
 
     @Override
     public boolean remove(Object o) {
-        for (int i = 0; i < size; i++) {
-            if (arr[i].equals(o)) {
-                arr[i] = null;
-                optimize();
-                return true;
-            }
+        int index = indexOf(o);
+        if (index == -1) {
+            return false;
         }
-        return false;
+        remove(index);
+        return true;
     }
 
     @Override
     public boolean containsAll(Collection<?> c) {
-        return false; // TODO: read the docs on what this is supposed to do
+        for (Object o : c) {
+            if (!contains(o)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public boolean addAll(Collection<? extends T> c) {
-        for (T o : c) {
-            add(o);
-        }
-        return true;
+        return addAll(size, c);
     }
 
+    /**
+     * Inserts every element of c at index. The data array is grown at most once, the elements after index are moved
+     * with a single {@link System#arraycopy}, and if c is another BarryList its data array is copied directly instead
+     * of going through {@link #toArray()}.
+     * @param index Where the first element of c will be
+     * @param c The elements to add
+     * @return If the list changed
+     */
     @Override
     public boolean addAll(int index, Collection<? extends T> c) {
-        Object[] ca = c.toArray();
-        for (int i = 0; i < ca.length; i++) {
-            add(index + i, (T) ca[i]);
+        if (index < 0 || index > size) {
+            throw new ArrayIndexOutOfBoundsException(String.format("Index %d is larger than size %d", index, size));
+        }
+
+        Object[] source;
+        int count;
+        if (c instanceof BarryList && c != this) {
+            // no need to copy the other list first, its data array is not changed by anything done here
+            source = ((BarryList<?>) c).arr;
+            count = ((BarryList<?>) c).size;
+        } else {
+            source = c.toArray();
+            count = source.length;
+        }
+        if (count == 0) {
+            return false;
+        }
+
+        if (hashValid) {
+            int suffixHash = suffixHash(index);
+            int insertedHash = 0;
+            for (int i = 0; i < count; i++) {
+                insertedHash = 31 * insertedHash + Objects.hashCode(source[i]);
+            }
+            // the elements before index move count places further from the end, the inserted ones are placed in front
+            // of the elements after index, which do not move relative to the end
+            hash = (hash - suffixHash) * pow31(count) + insertedHash * pow31(size - index) + suffixHash;
+        }
+
+        ensureCapacity(size + count);
+        System.arraycopy(arr, index, arr, index + count, size - index);
+        System.arraycopy(source, 0, arr, index, count);
+        size += count;
+        modCount++;
+        if (lookup != null) {
+            if (index + count == size) {
+                for (int i = index; i < size; i++) {
+                    lookup.append(arr[i], i);
+                }
+            } else {
+                rebuildLookup();
+            }
         }
         return true;
     }
 
     @Override
     public boolean removeAll(Collection<?> c) {
-        for (int i = 0; i < size; i++) {
-            if (c.contains(arr[i])) {
-                arr[i] = null;
-            }
-        }
-        optimize();
-        return true;
+        return compact(c::contains) > 0;
     }
 
     @Override
     public boolean retainAll(Collection<?> c) {
-        for (int i = 0; i < size; i++) {
-            if (!c.contains(arr[i])) {
-                arr[i] = null;
-            }
-        }
-        optimize();
-        return false;
+        return compact(t -> !c.contains(t)) > 0;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        return compact(filter) > 0;
     }
 
     @Override
     public void clear() {
-        arr = new Object[size];
+        Arrays.fill(arr, 0, size, null); // the data array keeps its length, use trimToSize to shrink it
+        size = 0;
+        modCount++;
+        hash = 1;
+        hashValid = true;
+        if (lookup != null) {
+            lookup.clear();
+        }
     }
 
     @Override
     public boolean equals(Object o) {
-        if (o.getClass() != BarryList.class) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof List)) {
             return false;
         }
-        if (((BarryList<?>) o).size != this.size) {
+
+        if (o instanceof BarryList) {
+            BarryList<?> other = (BarryList<?>) o;
+            if (other.size != size) {
+                return false;
+            }
+            if (hashValid && other.hashValid && hash != other.hash) {
+                return false; // lists with different hash codes can not be equal
+            }
+            for (int i = 0; i < size; i++) {
+                if (!Objects.equals(arr[i], other.arr[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        List<?> other = (List<?>) o;
+        if (other.size() != size) {
             return false;
         }
+        Iterator<?> it = other.iterator();
         for (int i = 0; i < size; i++) {
-            if (!((BarryList<?>) o).get(i).equals(arr[i])) {
+            if (!Objects.equals(arr[i], it.next())) {
                 return false;
             }
         }
         return true;
     }
 
+    /**
+     * Returns the hash code described in {@link List#hashCode()}. It is cached and kept up to date by add, set and
+     * remove, which is O(1) when adding to the end or setting an element, and costs no more than the elements that
+     * have to be moved anyway when adding or removing in the middle. Changes that move a lot of elements (sorting,
+     * removeIf and friends) throw the cached value away, and it is computed again the next time it is needed. Like
+     * with any hash based collection, the elements' hash codes should not change while they are in the list.
+     * @return The hash code of this list
+     */
     @Override
     public int hashCode() {
-        return 0;
+        if (!hashValid) {
+            int h = 1;
+            for (int i = 0; i < size; i++) {
+                h = 31 * h + Objects.hashCode(arr[i]);
+            }
+            hash = h;
+            hashValid = true;
+        }
+        return hash;
+    }
+
+    /**
+     * @return 31 to the power of exponent, with the same overflow as the hash code calculation
+     */
+    private static int pow31(int exponent) {
+        int result = 1;
+        int base = 31;
+        while (exponent > 0) {
+            if ((exponent & 1) == 1) {
+                result *= base;
+            }
+            base *= base;
+            exponent >>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the part of the hash code that comes from the elements at from and after, which is the sum of each
+     * element's hash times 31 to the power of its distance from the end of the list.
+     */
+    private int suffixHash(int from) {
+        int h = 0;
+        int power = 1;
+        for (int i = size - 1; i >= from; i--) {
+            h += Objects.hashCode(arr[i]) * power;
+            power *= 31;
+        }
+        return h;
     }
 
     @Override
@@ -192,43 +520,73 @@ public class BarryList<T> implements List<T> {
         }
         T hold = (T) arr[index];
         arr[index] = element;
+        if (lookup != null) {
+            lookup.remove(hold, index);
+            lookup.insert(element, index);
+        }
+        if (hashValid) {
+            hash += (Objects.hashCode(element) - Objects.hashCode(hold)) * pow31(size - 1 - index);
+        }
         return hold;
     }
 
     @Override
     public void add(int index, T element) {
-        size++;
-        if (size >= arr.length) {
-            arr = Arrays.copyOf(arr, arr.length * 2); // doubling our data array's size
+        if (index < 0 || index > size) {
+            throw new ArrayIndexOutOfBoundsException(String.format("Index %d is larger than size %d", index, size));
         }
-
-        T hold = (T) arr[index];
-        T temp;
-        if (hold == null) {
-            arr[index] = element;
-            return;
+        if (hashValid) {
+            int suffixHash = suffixHash(index);
+            hash = (hash - suffixHash) * 31 + Objects.hashCode(element) * pow31(size - index) + suffixHash;
         }
-        for (int i = index + 1; i < size; i++) {
-            // no need to check if out of bounds because we did so at the start
-            temp = (T) arr[i];
-            arr[i] = hold;
-            hold = temp;
+        if (arr.length == size) {
+            grow(size + 1);
+        }
+        if (lookup != null) {
+            // moving the positions from the end first keeps them in order
+            for (int i = size - 1; i >= index; i--) {
+                lookup.move(arr[i], i, i + 1);
+            }
+            lookup.insert(element, index);
         }
+        System.arraycopy(arr, index, arr, index + 1, size - index); // moving everything after index up by one
         arr[index] = element;
+        size++;
+        modCount++;
     }
 
     @Override
     public T remove(int index) {
+        if (index >= size) {
+            throw new ArrayIndexOutOfBoundsException(String.format("Index %d is larger than size %d", index, size));
+        }
         T hold = (T) arr[index];
-        arr[index] = null;
-        optimize();
+        if (hashValid) {
+            // the elements before index get one place closer to the end, which is the same as dividing by 31
+            int suffixHash = suffixHash(index + 1);
+            int prefixHash = hash - suffixHash - Objects.hashCode(hold) * pow31(size - 1 - index);
+            hash = prefixHash * INVERSE_31 + suffixHash;
+        }
+        if (lookup != null) {
+            lookup.remove(hold, index);
+            for (int i = index + 1; i < size; i++) {
+                lookup.move(arr[i], i, i - 1);
+            }
+        }
+        System.arraycopy(arr, index + 1, arr, index, size - index - 1); // moving everything after index down by one
+        size--;
+        arr[size] = null;
+        modCount++;
         return hold;
     }
 
     @Override
     public int indexOf(Object o) {
+        if (lookup != null) {
+            return lookup.first(o);
+        }
         for (int i = 0; i < size; i++) {
-            if (arr[i].equals(o)) {
+            if (Objects.equals(o, arr[i])) {
                 return i;
             }
         }
@@ -237,8 +595,11 @@ public class BarryList<T> implements List<T> {
 
     @Override
     public int lastIndexOf(Object o) {
-        for (int i = size - 1; i >= 0; i++) {
-            if (arr[i].equals(o)) {
+        if (lookup != null) {
+            return lookup.last(o);
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            if (Objects.equals(o, arr[i])) {
                 return i;
             }
         }
@@ -255,9 +616,162 @@ public class BarryList<T> implements List<T> {
         return null;
     }
 
+    /**
+     * Returns a view of the elements from fromIndex to toIndex. Nothing is copied, the view reads and writes this
+     * list's data array directly, so changes made through the view show up in this list and the other way around. If
+     * this list is structurally changed (anything that changes its size) other than through the view, the view will
+     * throw a {@link ConcurrentModificationException} the next time it is used.
+     * @param fromIndex The first index of the view (inclusive)
+     * @param toIndex The last index of the view (exclusive)
+     * @return A view of part of this list
+     */
     @Override
     public List<T> subList(int fromIndex, int toIndex) {
-        return new BarryList<T>(Arrays.copyOfRange(arr, fromIndex, toIndex), toIndex - fromIndex);
+        subListRangeCheck(fromIndex, toIndex, size);
+        return new SubList(null, fromIndex, toIndex - fromIndex);
+    }
+
+    private static void subListRangeCheck(int fromIndex, int toIndex, int size) {
+        if (fromIndex < 0 || toIndex > size) {
+            throw new IndexOutOfBoundsException(String.format("Range %d to %d is out of bounds for size %d",
+                                                              fromIndex, toIndex, size));
+        }
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException(String.format("fromIndex %d is larger than toIndex %d",
+                                                             fromIndex, toIndex));
+        }
+    }
+
+    /**
+     * Removes the elements from fromIndex to toIndex by moving the tail down with one {@link System#arraycopy}.
+     */
+    private void removeRange(int fromIndex, int toIndex) {
+        System.arraycopy(arr, toIndex, arr, fromIndex, size - toIndex);
+        int newSize = size - (toIndex - fromIndex);
+        Arrays.fill(arr, newSize, size, null);
+        size = newSize;
+        modCount++;
+        hashValid = false;
+        rebuildLookup();
+    }
+
+    /**
+     * A view of part of a BarryList, described by an offset and a size. Changes are made through the outer list, and
+     * then the size of this view (and of every view it was made from) is updated. The inherited modCount holds the
+     * outer list's modCount from the last time this view changed it, so a change made any other way can be noticed.
+     */
+    private class SubList extends AbstractList<T> implements RandomAccess {
+        private final SubList parent;
+        private final int offset;
+        private int size;
+
+        SubList(SubList parent, int offset, int size) {
+            this.parent = parent;
+            this.offset = offset;
+            this.size = size;
+            this.modCount = BarryList.this.modCount;
+        }
+
+        private void checkForComodification() {
+            if (BarryList.this.modCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        private void checkIndex(int index, int bound) {
+            if (index < 0 || index >= bound) {
+                throw new IndexOutOfBoundsException(String.format("Index %d is out of bounds for size %d",
+                                                                  index, size));
+            }
+        }
+
+        private void updateSizeAndModCount(int sizeChange) {
+            SubList view = this;
+            do {
+                view.size += sizeChange;
+                view.modCount = BarryList.this.modCount;
+                view = view.parent;
+            } while (view != null);
+        }
+
+        @Override
+        public int size() {
+            checkForComodification();
+            return size;
+        }
+
+        @Override
+        public T get(int index) {
+            checkIndex(index, size);
+            checkForComodification();
+            return (T) arr[offset + index];
+        }
+
+        @Override
+        public T set(int index, T element) {
+            checkIndex(index, size);
+            checkForComodification();
+            return BarryList.this.set(offset + index, element);
+        }
+
+        @Override
+        public void add(int index, T element) {
+            checkIndex(index, size + 1);
+            checkForComodification();
+            BarryList.this.add(offset + index, element);
+            updateSizeAndModCount(1);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends T> c) {
+            return addAll(size, c);
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<? extends T> c) {
+            checkIndex(index, size + 1);
+            checkForComodification();
+            int count = c.size();
+            if (count == 0) {
+                return false;
+            }
+            BarryList.this.addAll(offset + index, c);
+            updateSizeAndModCount(count);
+            return true;
+        }
+
+        @Override
+        public T remove(int index) {
+            checkIndex(index, size);
+            checkForComodification();
+            T hold = BarryList.this.remove(offset + index);
+            updateSizeAndModCount(-1);
+            return hold;
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            checkForComodification();
+            BarryList.this.removeRange(offset + fromIndex, offset + toIndex);
+            updateSizeAndModCount(fromIndex - toIndex);
+        }
+
+        @Override
+        public void sort(Comparator<? super T> c) {
+            checkForComodification();
+            Comparator<Object> comparator = (Comparator<Object>) (c == null ? Comparator.naturalOrder() : c);
+            MergeSort.sort(arr, offset, offset + size, comparator, parallelSortThreshold);
+            BarryList.this.modCount++;
+            hashValid = false;
+            rebuildLookup();
+            updateSizeAndModCount(0);
+        }
+
+        @Override
+        public List<T> subList(int fromIndex, int toIndex) {
+            subListRangeCheck(fromIndex, toIndex, size);
+            return new SubList(this, offset + fromIndex, toIndex - fromIndex);
+        }
     }
 
     public static void main(String[] args) {
@@ -273,10 +787,33 @@ public class BarryList<T> implements List<T> {
     }
 
     /**
-     * Overriding the sort method to implement merge sort instead of tim sort.
-     * @param c
+     * Overriding the sort method to implement merge sort instead of tim sort. The merge sort is stable and is done
+     * in place on the data array, see {@link MergeSort} for how it works. Lists with at least
+     * {@link #getParallelSortThreshold()} elements are sorted on all cores using the common fork join pool.
+     * @param c The comparator to sort with, if it is null the elements are sorted by their natural ordering
      */
     @Override
     public void sort(Comparator<? super T> c) {
+        Comparator<Object> comparator = (Comparator<Object>) (c == null ? Comparator.naturalOrder() : c);
+        MergeSort.sort(arr, 0, size, comparator, parallelSortThreshold);
+        modCount++;
+        hashValid = false;
+        rebuildLookup();
+    }
+
+    public int getParallelSortThreshold() {
+        return parallelSortThreshold;
+    }
+
+    /**
+     * Sets the smallest size a list needs to be for {@link #sort(Comparator)} to sort it in parallel. Below this size
+     * the cost of splitting the work between threads is larger than what is saved.
+     * @param parallelSortThreshold The smallest size to sort in parallel, must be at least 1
+     */
+    public void setParallelSortThreshold(int parallelSortThreshold) {
+        if (parallelSortThreshold < 1) {
+            throw new IllegalArgumentException("The threshold must be at least 1");
+        }
+        this.parallelSortThreshold = parallelSortThreshold;
     }
 }
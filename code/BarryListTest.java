@@ -0,0 +1,531 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BarryListTest {
+
+    @Test
+    public void testIntBarryList() {
+        IntBarryList list = new IntBarryList(0); // starting at 0 to make sure the list can still grow
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(list.add(99 - i));
+        }
+        assertEquals(100, list.size());
+        assertEquals(99, list.get(0));
+        assertEquals(0, list.get(99));
+        assertEquals(5, list.set(94, -5));
+        assertEquals(-5, list.get(94));
+        assertEquals(94, list.indexOf(-5));
+        assertEquals(-1, list.indexOf(5));
+        assertTrue(list.contains(50));
+        assertFalse(list.contains(100));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> list.get(100));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> list.get(-1));
+
+        list.sort();
+        assertEquals(-5, list.get(0));
+        assertEquals(99, list.get(99));
+        assertEquals(4950 - 10, list.stream().sum());
+
+        IntBarryList collected = IntBarryList.of(IntStream.range(0, 1000).filter(i -> i % 3 == 0));
+        assertEquals(334, collected.size());
+        assertEquals(999, collected.get(333));
+        assertArrayEquals(IntStream.range(0, 1000).filter(i -> i % 3 == 0).toArray(), collected.toArray());
+    }
+
+    @Test
+    public void testLongAndDoubleBarryList() {
+        LongBarryList longs = LongBarryList.of(LongStream.rangeClosed(1, 20).map(l -> l << 40));
+        assertEquals(20, longs.size());
+        assertEquals(3L << 40, longs.get(2));
+        assertEquals(19, longs.lastIndexOf(20L << 40));
+        assertEquals(210L << 40, longs.stream().sum());
+
+        DoubleBarryList doubles = DoubleBarryList.of(DoubleStream.of(2.5, Double.NaN, -1.0));
+        assertEquals(1, doubles.indexOf(Double.NaN));
+        doubles.sort();
+        assertArrayEquals(new double[]{-1.0, 2.5, Double.NaN}, doubles.toArray());
+        assertEquals(1.5, doubles.stream().limit(2).sum());
+    }
+
+    @Test
+    public void testRemovals() {
+        BarryList<Integer> list = new BarryList<>();
+        for (int i = 0; i < 20; i++) {
+            list.add(i);
+        }
+
+        assertEquals(0, list.remove(0));
+        assertTrue(list.remove((Object) 19));
+        assertFalse(list.remove((Object) 19));
+        assertEquals(18, list.size());
+
+        // several holes at once, including at the start and the end
+        assertTrue(list.removeIf(i -> i % 3 == 0 || i == 1 || i == 17));
+        assertEquals(List.of(2, 4, 5, 7, 8, 10, 11, 13, 14, 16), list);
+        assertEquals(10, list.size());
+
+        assertTrue(list.removeAll(Set.of(4, 5, 16, 100)));
+        assertFalse(list.removeAll(Set.of(100)));
+        assertEquals(List.of(2, 7, 8, 10, 11, 13, 14), list);
+
+        assertTrue(list.retainAll(Set.of(7, 8, 14)));
+        assertFalse(list.retainAll(Set.of(7, 8, 14)));
+        assertEquals(List.of(7, 8, 14), list);
+
+        assertTrue(list.removeIf(i -> true));
+        assertTrue(list.isEmpty());
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> list.remove(0));
+
+        // a filter that throws partway through keeps what it removed so far and everything after it
+        BarryList<String> letters = new BarryList<>();
+        letters.addAll(List.of("a", "b", "c", "d"));
+        letters.setIndexed(true);
+        assertThrows(IllegalStateException.class, () -> letters.removeIf(s -> {
+            if (s.equals("d")) {
+                throw new IllegalStateException();
+            }
+            return s.equals("b");
+        }));
+        assertEquals(3, letters.size());
+        assertEquals(List.of("a", "c", "d"), letters);
+        assertEquals(List.of("a", "c", "d").hashCode(), letters.hashCode());
+        assertEquals(2, letters.indexOf("d"));
+        assertFalse(letters.contains("b"));
+    }
+
+    @Test
+    public void testSort() {
+        Random random = new Random(5);
+        for (int size : new int[]{0, 1, 5, 31, 32, 33, 1000, 100000}) {
+            BarryList<Integer> list = new BarryList<>();
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                int value = random.nextInt(size / 2 + 1);
+                list.add(value);
+                expected.add(value);
+            }
+            list.setParallelSortThreshold(1000); // small enough that the large lists get sorted in parallel
+
+            list.sort(null);
+            expected.sort(null);
+            assertEquals(expected, list);
+
+            // sorting an already sorted (and a reversed) list only has to find the runs
+            list.sort(Comparator.reverseOrder());
+            expected.sort(Comparator.reverseOrder());
+            assertEquals(expected, list);
+        }
+
+        // the sort has to be stable, so values with the same key stay in the order they were added
+        BarryList<int[]> pairs = new BarryList<>();
+        for (int i = 0; i < 50000; i++) {
+            pairs.add(new int[]{random.nextInt(100), i});
+        }
+        pairs.setParallelSortThreshold(1000);
+        pairs.sort(Comparator.comparingInt(pair -> pair[0]));
+        for (int i = 1; i < pairs.size(); i++) {
+            int[] previous = pairs.get(i - 1);
+            int[] current = pairs.get(i);
+            assertTrue(previous[0] < current[0] || (previous[0] == current[0] && previous[1] < current[1]));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> pairs.setParallelSortThreshold(0));
+    }
+
+    @Test
+    public void testGapBarryList() {
+        GapBarryList<Integer> list = new GapBarryList<>(0);
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(4);
+
+        // editor style edits, the cursor mostly moves a little bit between edits and sometimes jumps somewhere else
+        int cursor = 0;
+        for (int i = 0; i < 20000; i++) {
+            if (random.nextInt(50) == 0) {
+                cursor = random.nextInt(expected.size() + 1);
+            } else {
+                cursor = Math.max(0, Math.min(expected.size(), cursor + random.nextInt(5) - 2));
+            }
+
+            int operation = random.nextInt(10);
+            if (operation < 6) {
+                list.add(cursor, i);
+                expected.add(cursor, i);
+            } else if (operation < 9 && cursor < expected.size()) {
+                assertEquals(expected.remove(cursor), list.remove(cursor));
+            } else if (cursor < expected.size()) {
+                assertEquals(expected.set(cursor, -i), list.set(cursor, -i));
+            }
+        }
+        assertEquals(expected, list);
+
+        assertTrue(list.addAll(3, List.of(1, 2, 3)));
+        expected.addAll(3, List.of(1, 2, 3));
+        list.subList(10, 100).clear();
+        expected.subList(10, 100).clear();
+        assertTrue(list.add(7));
+        expected.add(7);
+        assertEquals(expected, list);
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(list.size()));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.add(list.size() + 1, 0));
+
+        list.clear();
+        assertTrue(list.isEmpty());
+        list.add(0, 5);
+        assertEquals(List.of(5), list);
+    }
+
+    @Test
+    public void testSpliterator() {
+        BarryList<Integer> list = new BarryList<>();
+        for (int i = 0; i < 10000; i++) {
+            list.add(i);
+        }
+
+        Spliterator<Integer> spliterator = list.spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        assertEquals(10000, spliterator.getExactSizeIfKnown());
+        Spliterator<Integer> prefix = spliterator.trySplit();
+        assertEquals(5000, prefix.estimateSize());
+        assertEquals(5000, spliterator.estimateSize());
+        assertTrue(prefix.tryAdvance(i -> assertEquals(0, i)));
+
+        assertEquals(49995000L, list.parallelStream().mapToLong(Integer::longValue).sum());
+        assertEquals(list.parallelStream().collect(Collectors.toList()), list);
+        assertEquals(10000, list.stream().count());
+
+        int[] sum = new int[1];
+        list.forEach(i -> sum[0] += i);
+        assertEquals(49995000, sum[0]);
+        assertThrows(ConcurrentModificationException.class, () -> list.forEach(list::add));
+    }
+
+    @Test
+    public void testConcurrentBarryList() throws InterruptedException {
+        ConcurrentBarryList<Integer> list = new ConcurrentBarryList<>(0);
+        final int threads = 4;
+        final int perThread = 20000;
+
+        // readers check that they only ever see fully published elements while the writers append
+        Thread[] workers = new Thread[threads * 2];
+        boolean[] sawNull = new boolean[1];
+        for (int t = 0; t < threads; t++) {
+            int offset = t * perThread;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    list.add(offset + i);
+                }
+            });
+            workers[threads + t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    int size = list.size();
+                    if (size > 0 && list.get(size - 1) == null) {
+                        sawNull[0] = true;
+                    }
+                }
+            });
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertFalse(sawNull[0]);
+        assertEquals(threads * perThread, list.size());
+        List<Integer> sorted = new ArrayList<>(list);
+        sorted.sort(null);
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(i, sorted.get(i));
+        }
+
+        // snapshots do not see later changes
+        List<Integer> snapshot = list.snapshot();
+        list.clear();
+        assertEquals(threads * perThread, snapshot.size());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(1));
+
+        list.addAll(List.of(1, 2, 3, 4, 5));
+        list.add(0, 0);
+        assertEquals(3, list.set(3, -3));
+        assertEquals(4, list.remove(4));
+        assertTrue(list.remove((Object) 5));
+        assertTrue(list.removeIf(i -> i < 0));
+        assertEquals(List.of(0, 1, 2), list);
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.set(3, 0));
+        list.add(3);
+        assertEquals(List.of(0, 1, 2, 3), list);
+    }
+
+    @Test
+    public void testMappedBarryList() throws IOException {
+        Path file = Files.createTempFile("barry", ".list");
+        try {
+            // tiny segments so that the list has to use a lot of them
+            try (MappedBarryList<Integer> list = MappedBarryList.open(file, RecordCodec.INT, 64)) {
+                for (int i = 0; i < 5000; i++) {
+                    list.add(i * 3);
+                }
+                assertEquals(5000, list.size());
+                assertEquals(300, list.get(100));
+                assertEquals(300, list.set(100, -1));
+                list.add(16, 7);
+                assertEquals(7, list.remove(16));
+                assertEquals(0, list.remove(0));
+            }
+
+            // opening the file again gives back the same list without having to add anything
+            try (MappedBarryList<Integer> list = MappedBarryList.open(file, RecordCodec.INT)) {
+                assertEquals(4999, list.size());
+                assertEquals(3, list.get(0));
+                assertEquals(-1, list.get(99));
+                assertEquals(14997, list.get(4998));
+                list.clear();
+                assertTrue(list.isEmpty());
+            }
+
+            assertThrows(IOException.class, () -> MappedBarryList.open(file, RecordCodec.LONG));
+
+            // a file that was cut off, or has a broken size in its header, should not open at all
+            try (MappedBarryList<Integer> list = MappedBarryList.open(file, RecordCodec.INT)) {
+                for (int i = 0; i < 100; i++) {
+                    list.add(i);
+                }
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(16 + 50 * 4);
+            }
+            IOException truncated = assertThrows(IOException.class, () -> MappedBarryList.open(file, RecordCodec.INT));
+            assertTrue(truncated.getMessage().contains(file.toString()));
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(0, -1), 8);
+            }
+            assertThrows(IOException.class, () -> MappedBarryList.open(file, RecordCodec.INT));
+        } finally {
+            Files.delete(file);
+        }
+
+        MappedBarryList<Double> offHeap = new MappedBarryList<>(RecordCodec.DOUBLE);
+        for (int i = 0; i < 3000; i++) {
+            offHeap.add(i / 2.0);
+        }
+        assertEquals(1499.5, offHeap.get(2999));
+        assertThrows(IndexOutOfBoundsException.class, () -> offHeap.get(3000));
+        assertThrows(NullPointerException.class, () -> offHeap.add(null));
+    }
+
+    @Test
+    public void testBulkInsertion() {
+        BarryList<Integer> list = new BarryList<>(0);
+        assertFalse(list.addAll(List.of()));
+        assertTrue(list.addAll(List.of(1, 2, 3)));
+        list.add(0, 0);
+        list.add(4, 5);
+        list.add(4, 4);
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), list);
+
+        BarryList<Integer> other = new BarryList<>();
+        other.addAll(List.of(10, 11));
+        assertTrue(list.addAll(2, other));
+        assertEquals(List.of(0, 1, 10, 11, 2, 3, 4, 5), list);
+        assertTrue(list.addAll(list));
+        assertEquals(16, list.size());
+        assertEquals(List.of(0, 1, 10, 11, 2, 3, 4, 5, 0, 1, 10, 11, 2, 3, 4, 5), list);
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> list.addAll(17, other));
+
+        assertArrayEquals(new Integer[]{10, 11}, other.toArray(new Integer[0]));
+        Integer[] larger = {-1, -1, -1, -1};
+        assertSame(larger, other.toArray(larger));
+        assertArrayEquals(new Integer[]{10, 11, null, -1}, larger);
+        assertEquals(2, other.toArray().length);
+
+        list.ensureCapacity(1000000);
+        list.trimToSize();
+        assertEquals(16, list.size());
+        list.clear();
+        assertTrue(list.isEmpty());
+        list.add(1);
+        assertEquals(List.of(1), list);
+    }
+
+    @Test
+    public void testSubList() {
+        BarryList<Integer> list = new BarryList<>();
+        for (int i = 0; i < 10; i++) {
+            list.add(i);
+        }
+
+        List<Integer> view = list.subList(2, 8);
+        assertEquals(List.of(2, 3, 4, 5, 6, 7), view);
+        view.set(0, 20);
+        assertEquals(20, list.get(2)); // writes go through to the list
+
+        List<Integer> inner = view.subList(1, 3);
+        inner.add(1, 30);
+        assertEquals(List.of(3, 30, 4), inner);
+        assertEquals(7, view.size());
+        assertEquals(11, list.size());
+        assertEquals(List.of(0, 1, 20, 3, 30, 4, 5, 6, 7, 8, 9), list);
+
+        inner.clear();
+        assertEquals(List.of(20, 5, 6, 7), view);
+        view.sort(Comparator.reverseOrder());
+        assertEquals(List.of(0, 1, 20, 7, 6, 5, 8, 9), list);
+        assertEquals(20, view.remove(0));
+        assertEquals(List.of(7, 6, 5), view);
+
+        list.add(100); // changing the list directly makes the view unusable
+        assertThrows(ConcurrentModificationException.class, view::size);
+        assertThrows(IndexOutOfBoundsException.class, () -> list.subList(0, 100));
+        assertThrows(IllegalArgumentException.class, () -> list.subList(3, 2));
+    }
+
+    @Test
+    public void testHashCode() {
+        BarryList<String> list = new BarryList<>();
+        List<String> expected = new ArrayList<>();
+        assertEquals(expected.hashCode(), list.hashCode());
+
+        // every kind of change has to keep the hash code the same as the one an ArrayList would give
+        Random random = new Random(10);
+        for (int i = 0; i < 2000; i++) {
+            String value = random.nextInt(10) == 0 ? null : Integer.toString(random.nextInt(1000));
+            int operation = random.nextInt(6);
+            if (operation < 2 || expected.isEmpty()) {
+                list.add(value);
+                expected.add(value);
+            } else if (operation == 2) {
+                int index = random.nextInt(expected.size() + 1);
+                list.add(index, value);
+                expected.add(index, value);
+            } else if (operation == 3) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.set(index, value), list.set(index, value));
+            } else if (operation == 4) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), list.remove(index));
+            } else {
+                int index = random.nextInt(expected.size() + 1);
+                list.addAll(index, List.of("a", "b"));
+                expected.addAll(index, List.of("a", "b"));
+            }
+            assertEquals(expected.hashCode(), list.hashCode());
+        }
+
+        list.removeIf(value -> value == null);
+        expected.removeIf(value -> value == null);
+        assertEquals(expected.hashCode(), list.hashCode());
+        list.sort(null);
+        expected.sort(null);
+        assertEquals(expected.hashCode(), list.hashCode());
+        list.subList(5, 10).set(0, "c");
+        expected.subList(5, 10).set(0, "c");
+        assertEquals(expected.hashCode(), list.hashCode());
+
+        assertEquals(expected, list);
+        assertEquals(list, expected);
+        BarryList<String> copy = new BarryList<>();
+        copy.addAll(list);
+        assertEquals(list, copy);
+        copy.set(0, "different");
+        assertNotEquals(list, copy);
+        assertNotEquals(list, null);
+
+        // lists that are equal should end up in the same bucket
+        HashSet<BarryList<String>> set = new HashSet<>();
+        set.add(list);
+        copy.set(0, list.get(0));
+        assertTrue(set.contains(copy));
+
+        list.clear();
+        assertEquals(1, list.hashCode());
+    }
+
+    @Test
+    public void testIndexedMode() {
+        BarryList<Integer> list = new BarryList<>();
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 200; i++) {
+            int value = random.nextInt(50);
+            list.add(value);
+            expected.add(value);
+        }
+        list.setIndexed(true);
+        assertTrue(list.isIndexed());
+
+        // small values so that most elements are in the list several times
+        for (int i = 0; i < 3000; i++) {
+            Integer value = random.nextInt(20) == 0 ? null : random.nextInt(60);
+            int operation = random.nextInt(9);
+            if (operation < 2 || expected.isEmpty()) {
+                list.add(value);
+                expected.add(value);
+            } else if (operation == 2) {
+                int index = random.nextInt(expected.size() + 1);
+                list.add(index, value);
+                expected.add(index, value);
+            } else if (operation == 3) {
+                int index = random.nextInt(expected.size());
+                list.set(index, value);
+                expected.set(index, value);
+            } else if (operation == 4) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), list.remove(index));
+            } else if (operation == 5) {
+                assertEquals(expected.remove(value), list.remove(value));
+            } else if (operation == 6) {
+                int index = random.nextInt(expected.size() + 1);
+                list.addAll(index, List.of(value == null ? 0 : value, 1));
+                expected.addAll(index, List.of(value == null ? 0 : value, 1));
+            } else if (operation == 7 && random.nextInt(20) == 0) {
+                list.removeIf(v -> v != null && v % 7 == 0);
+                expected.removeIf(v -> v != null && v % 7 == 0);
+            } else {
+                assertEquals(expected.indexOf(value), list.indexOf(value));
+                assertEquals(expected.lastIndexOf(value), list.lastIndexOf(value));
+                assertEquals(expected.contains(value), list.contains(value));
+            }
+        }
+        assertEquals(expected, list);
+        for (int value = 0; value < 60; value++) {
+            assertEquals(expected.indexOf(value), list.indexOf(value));
+            assertEquals(expected.lastIndexOf(value), list.lastIndexOf(value));
+        }
+
+        list.sort(Comparator.nullsFirst(Comparator.naturalOrder()));
+        expected.sort(Comparator.nullsFirst(Comparator.naturalOrder()));
+        assertEquals(expected.indexOf(30), list.indexOf(30));
+        assertTrue(list.containsAll(List.of(1, 30)));
+        list.clear();
+        assertFalse(list.contains(30));
+        list.add(30);
+        assertEquals(0, list.indexOf(30));
+        list.setIndexed(false);
+        assertEquals(0, list.lastIndexOf(30));
+    }
+}
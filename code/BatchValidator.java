@@ -0,0 +1,267 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+/**
+ * Checks a whole file of sentences (one per line) with {@link LogicalOperator#legal(String)} using several threads.
+ * The lines are read in batches of {@link #BATCH_SIZE}, and every batch is checked by one of the workers. At most
+ * queueSize batches are waiting to be written out at once, so reading never gets far ahead of the workers and the
+ * memory used does not depend on the size of the input. The results are written in the same order as the lines they
+ * belong to, each as "true" or "false", a tab, and the sentence.
+ *
+ * <p>Usage: {@code java BatchValidator [file, or - for standard input] [threads] [cache size]}. The results are
+ * written to standard output, and the throughput and latency percentiles to standard error. If a cache size is given,
+ * the results go through a {@link ValidationCache} of that size and its counters are printed as well.
+ */
+public class BatchValidator {
+
+    static final int BATCH_SIZE = 256;
+
+    private final int threads;
+    private final int queueSize;
+    private final Predicate<String> validator;
+
+    /**
+     * @param threads The amount of worker threads
+     * @param queueSize The most batches that can be checked or waiting to be written at once
+     */
+    public BatchValidator(int threads, int queueSize) {
+        this(threads, queueSize, LogicalOperator::legal);
+    }
+
+    /**
+     * Makes a validator that goes through cache, which is worth it when the same sentences show up many times.
+     * @param threads The amount of worker threads
+     * @param queueSize The most batches that can be checked or waiting to be written at once
+     * @param cache The cache shared by the workers
+     */
+    public BatchValidator(int threads, int queueSize, ValidationCache cache) {
+        this(threads, queueSize, cache::legal);
+    }
+
+    BatchValidator(int threads, int queueSize, Predicate<String> validator) {
+        if (threads < 1 || queueSize < 1) {
+            throw new IllegalArgumentException("threads and queueSize have to be at least 1");
+        }
+        this.threads = threads;
+        this.queueSize = queueSize;
+        this.validator = validator;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        ValidationCache cache = args.length > 2 ? new ValidationCache(Integer.parseInt(args[2])) : null;
+        BatchValidator validator = cache == null ? new BatchValidator(threads, threads * 4)
+                                                 : new BatchValidator(threads, threads * 4, cache);
+
+        InputStream in = args.length == 0 || args[0].equals("-") ? System.in : Files.newInputStream(Paths.get(args[0]));
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        try (in) {
+            Report report = validator.validate(in, out);
+            System.err.println(report);
+            if (cache != null) {
+                System.err.println(cache);
+            }
+        }
+    }
+
+    /**
+     * Checks every line of in and writes the results to out. Neither in nor out is closed, but out is flushed at the
+     * end.
+     * @param in The sentences, one per line, in UTF-8
+     * @param out Where the results are written to
+     * @return How long it took
+     * @throws IOException If in or out throw one
+     */
+    public Report validate(InputStream in, Writer out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<Batch>> pending = new ArrayDeque<>(queueSize);
+        Report report = new Report();
+        long start = System.nanoTime();
+        try {
+            while (true) {
+                String[] lines = new String[BATCH_SIZE];
+                int count = 0;
+                String line;
+                while (count < BATCH_SIZE && (line = reader.readLine()) != null) {
+                    lines[count++] = line;
+                }
+                if (count == 0) {
+                    break;
+                }
+
+                if (pending.size() == queueSize) {
+                    // waiting for the oldest batch keeps the queue bounded and the results in order
+                    write(pending.removeFirst(), out, report);
+                }
+                Batch batch = new Batch(lines, count);
+                pending.addLast(executor.submit(() -> batch.check(validator)));
+                if (count < BATCH_SIZE) {
+                    break;
+                }
+            }
+            while (!pending.isEmpty()) {
+                write(pending.removeFirst(), out, report);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        out.flush();
+        report.elapsed = System.nanoTime() - start;
+        return report;
+    }
+
+    private static void write(Future<Batch> future, Writer out, Report report) throws IOException {
+        Batch batch;
+        try {
+            batch = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a batch", e);
+        } catch (ExecutionException e) {
+            throw new IOException("A batch could not be checked", e.getCause());
+        }
+
+        for (int i = 0; i < batch.count; i++) {
+            out.write(batch.legal[i] ? "true\t" : "false\t");
+            out.write(batch.lines[i]);
+            out.write('\n');
+            report.record(batch.latencies[i]);
+            if (batch.legal[i]) {
+                report.legal++;
+            }
+        }
+    }
+
+    /**
+     * A group of lines that is checked by one worker.
+     */
+    private static class Batch {
+        private final String[] lines;
+        private final int count;
+        private final boolean[] legal;
+        private final long[] latencies; // how long each line took to check, in nanoseconds
+
+        Batch(String[] lines, int count) {
+            this.lines = lines;
+            this.count = count;
+            this.legal = new boolean[count];
+            this.latencies = new long[count];
+        }
+
+        Batch check(Predicate<String> validator) {
+            for (int i = 0; i < count; i++) {
+                long start = System.nanoTime();
+                legal[i] = validator.test(lines[i]);
+                latencies[i] = System.nanoTime() - start;
+            }
+            return this;
+        }
+    }
+
+    /**
+     * How many sentences were checked, how long that took in total, and how long each of them took. The latencies are
+     * counted in a fixed amount of buckets instead of being kept, so a report takes the same memory for any amount of
+     * sentences. Each power of 2 is split into {@link #SUB_BUCKETS} buckets, which means a percentile is at most
+     * 1/{@link #SUB_BUCKETS} more than the real latency (latencies under {@link #SUB_BUCKETS} ns are exact).
+     */
+    public static class Report {
+        static final int SUB_BUCKETS = 16;
+        private static final int SUB_BITS = 4;
+
+        // bucket i < SUB_BUCKETS holds a latency of exactly i, after that every power of 2 gets SUB_BUCKETS buckets
+        private final long[] buckets = new long[(64 - SUB_BITS) * SUB_BUCKETS];
+        private long count;
+        private long max;
+        private long elapsed;
+        private long legal;
+
+        void record(long latency) {
+            latency = Math.max(latency, 0);
+            buckets[bucket(latency)]++;
+            count++;
+            max = Math.max(max, latency);
+        }
+
+        static int bucket(long latency) {
+            if (latency < SUB_BUCKETS) {
+                return (int) latency;
+            }
+            int power = 63 - Long.numberOfLeadingZeros(latency); // at least SUB_BITS
+            int sub = (int) (latency >>> (power - SUB_BITS)) & (SUB_BUCKETS - 1);
+            return (power - SUB_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        /**
+         * @return The biggest latency that goes in bucket
+         */
+        static long highest(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int shift = bucket / SUB_BUCKETS - 1;
+            long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+            return lowest + (1L << shift) - 1;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public long legalCount() {
+            return legal;
+        }
+
+        /**
+         * @return The sentences checked per second
+         */
+        public double throughput() {
+            return elapsed == 0 ? 0 : count * 1e9 / elapsed;
+        }
+
+        /**
+         * @param percent A number from 0 to 100
+         * @return The time in nanoseconds that percent of the sentences took at most to check, rounded up to the end
+         * of its bucket
+         */
+        public long percentile(double percent) {
+            if (percent < 0 || percent > 100) {
+                throw new IllegalArgumentException(String.format("%f is not a percentage", percent));
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max((long) Math.ceil(percent / 100 * count), 1);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return Math.min(highest(i), max);
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d sentences (%d legal) in %.1f ms, %.0f sentences/s%n"
+                                 + "latency ns: p50 %d, p90 %d, p99 %d, p99.9 %d, max %d",
+                                 count, legal, elapsed / 1e6, throughput(), percentile(50), percentile(90),
+                                 percentile(99), percentile(99.9), percentile(100));
+        }
+    }
+}
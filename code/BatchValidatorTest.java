@@ -0,0 +1,113 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchValidatorTest {
+
+    @Test
+    public void testValidate() throws IOException {
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        String[] sentences = {"a", "~~a => b", "a &", "a & b | ~c", "A", "", "a <====> ~b"};
+        int legal = 0;
+        for (int i = 0; i < BatchValidator.BATCH_SIZE * 10 + 3; i++) {
+            String sentence = sentences[i % sentences.length];
+            input.append(sentence).append('\n');
+            expected.append(LogicalOperator.legal(sentence)).append('\t').append(sentence).append('\n');
+            legal += LogicalOperator.legal(sentence) ? 1 : 0;
+        }
+
+        // a queue smaller than the amount of batches, so the reader has to wait for the workers
+        for (int threads : new int[]{1, 4}) {
+            StringWriter out = new StringWriter();
+            BatchValidator.Report report = new BatchValidator(threads, 2).validate(
+                    new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)), out);
+            assertEquals(expected.toString(), out.toString());
+            assertEquals(BatchValidator.BATCH_SIZE * 10 + 3, report.count());
+            assertEquals(legal, report.legalCount());
+            assertTrue(report.percentile(50) <= report.percentile(99));
+        }
+
+        BatchValidator.Report empty = new BatchValidator(2, 2).validate(new ByteArrayInputStream(new byte[0]), new StringWriter());
+        assertEquals(0, empty.count());
+        assertEquals(0, empty.percentile(99));
+        assertThrows(IllegalArgumentException.class, () -> new BatchValidator(0, 1));
+    }
+
+    @Test
+    public void testValidationCache() throws IOException {
+        assertEquals("a & b", ValidationCache.normalize(" a \t&\n\n b  "));
+        assertEquals("~~a => b", ValidationCache.normalize("~~a => b"));
+        assertEquals("", ValidationCache.normalize("   "));
+        String normal = "a | b";
+        assertSame(normal, ValidationCache.normalize(normal));
+
+        ValidationCache cache = new ValidationCache(4);
+        assertTrue(cache.legal("a & b"));
+        assertTrue(cache.legal("  a   &  b"));
+        assertFalse(cache.legal("a = = > b"));
+        assertFalse(cache.legal("a = = > b"));
+        assertEquals(2, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(0, cache.evictions());
+
+        for (char c = 'a'; c <= 'z'; c++) {
+            assertEquals(LogicalOperator.legal("~" + c), cache.legal("~" + c));
+        }
+        assertTrue(cache.size() <= 4);
+        assertEquals(cache.misses() - cache.size(), cache.evictions());
+        assertThrows(IllegalArgumentException.class, () -> new ValidationCache(0));
+
+        // the cache is shared by every worker, and has to give the same results as checking without it
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        String[] sentences = {"a", " a ", "~~a => b", "a &", "a & b | ~c", "A", "", "a <====> ~b"};
+        for (int i = 0; i < BatchValidator.BATCH_SIZE * 20; i++) {
+            String sentence = sentences[i % sentences.length];
+            input.append(sentence).append('\n');
+            expected.append(LogicalOperator.legal(sentence)).append('\t').append(sentence).append('\n');
+        }
+        ValidationCache shared = new ValidationCache(100);
+        StringWriter out = new StringWriter();
+        new BatchValidator(4, 4, shared).validate(
+                new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)), out);
+        assertEquals(expected.toString(), out.toString());
+        assertEquals(BatchValidator.BATCH_SIZE * 20, shared.hits() + shared.misses());
+        assertTrue(shared.hits() >= BatchValidator.BATCH_SIZE * 20 - 100);
+    }
+
+    @Test
+    public void testReport() {
+        // every latency has to land in a bucket that ends at most 1/16 above it, and bigger latencies in later buckets
+        Random random = new Random(16);
+        long previous = -1;
+        for (long latency = 0; latency < 100_000; latency += 1 + latency / 50) {
+            int bucket = BatchValidator.Report.bucket(latency);
+            assertTrue(bucket >= previous);
+            previous = bucket;
+            assertTrue(BatchValidator.Report.highest(bucket) >= latency);
+            assertTrue(BatchValidator.Report.highest(bucket) <= latency + latency / BatchValidator.Report.SUB_BUCKETS);
+        }
+        for (int i = 0; i < 1000; i++) {
+            long latency = random.nextLong() >>> random.nextInt(64);
+            assertTrue(BatchValidator.Report.highest(BatchValidator.Report.bucket(latency)) >= latency);
+        }
+        assertTrue(BatchValidator.Report.bucket(Long.MAX_VALUE) >= 0);
+
+        BatchValidator.Report report = new BatchValidator.Report();
+        for (long latency = 1; latency <= 1000; latency++) {
+            report.record(latency);
+        }
+        assertEquals(1000, report.count());
+        assertTrue(report.percentile(50) >= 500 && report.percentile(50) <= 500 + 500 / 16);
+        assertTrue(report.percentile(99) >= 990 && report.percentile(99) <= 1000);
+        assertEquals(1000, report.percentile(100));
+        assertEquals(1, report.percentile(0));
+    }
+}
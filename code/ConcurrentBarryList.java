@@ -0,0 +1,327 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A version of {@link BarryList} that can be shared between threads without a lock. It is made for lists that are
+ * read a lot more often than they are changed.
+ *
+ * <p>The list is stored in a {@link Table}, which is a data array plus two counters. Readers never lock anything, they
+ * read the current table and only look at the first {@code published} elements of it, which never change. Appending
+ * to the end reserves the next index with a compare and swap, so threads that are all appending do not wait for each
+ * other, they only wait for the appends that reserved an earlier index to be published. Every other change (and
+ * growing a full table) seals the table so no more indexes can be reserved, copies it, and publishes the copy as the
+ * new table.
+ *
+ * <p>{@link #iterator()}, {@link #listIterator()} and {@link #spliterator()} work on a snapshot of the list taken when
+ * they are created. They never throw {@link java.util.ConcurrentModificationException} and do not support changing
+ * the list.
+ */
+public class ConcurrentBarryList<T> extends AbstractList<T> implements RandomAccess {
+
+    private static final int DEFAULT_SIZE = 10; // Using 10, because that is the default size in ArrayLists
+    private static final int SEALED = -1; // the value of Table.reserved once a table is being replaced
+    private static final int SPINS_BEFORE_YIELD = 64;
+
+    private volatile Table table;
+
+    public ConcurrentBarryList() {
+        this(DEFAULT_SIZE);
+    }
+
+    public ConcurrentBarryList(int initialSize) {
+        table = new Table(new Object[initialSize], 0);
+    }
+
+    /**
+     * One version of the list. The elements at indexes below {@code published} are never changed, so they can be read
+     * without locking. The elements between {@code published} and {@code reserved} are being written by appends that
+     * have not finished yet.
+     */
+    private static final class Table {
+        final Object[] arr;
+        final AtomicInteger reserved;
+        final AtomicInteger published;
+
+        Table(Object[] arr, int size) {
+            this.arr = arr;
+            this.reserved = new AtomicInteger(size);
+            this.published = new AtomicInteger(size);
+        }
+    }
+
+    /**
+     * The changes being made to a sealed table. The data array is only copied if the change actually writes to it,
+     * the old array might still be in use by readers.
+     */
+    private static final class Draft {
+        private final Object[] original;
+        Object[] arr;
+        int size;
+
+        Draft(Table sealed) {
+            this.original = sealed.arr;
+            this.arr = sealed.arr;
+            this.size = sealed.published.get();
+        }
+
+        /**
+         * @return A data array that can be written to and has room for at least capacity elements
+         */
+        Object[] writable(int capacity) {
+            if (arr == original || arr.length < capacity) {
+                int length = arr.length < capacity ? Math.max(capacity, arr.length * 2) : arr.length;
+                arr = Arrays.copyOf(arr, Math.max(length, DEFAULT_SIZE));
+            }
+            return arr;
+        }
+    }
+
+    /**
+     * Waits a little bit for another thread. It spins at first because the other thread is usually only a few
+     * instructions away from finishing, but yields if it takes longer, in case the other thread is not running at all.
+     * @param spins How many times this thread has already waited
+     */
+    private static void backOff(int spins) {
+        if (spins < SPINS_BEFORE_YIELD) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Waits until every append that reserved an index below reserved has published its element.
+     */
+    private static void awaitPublished(Table table, int reserved) {
+        for (int spins = 0; table.published.get() != reserved; spins++) {
+            backOff(spins);
+        }
+    }
+
+    /**
+     * Seals the current table so that no new appends can start on it and waits for the ones that already started.
+     * @return The sealed table, which is the latest version of the list
+     */
+    private Table seal() {
+        for (int spins = 0; ; spins++) {
+            Table current = table;
+            int reserved = current.reserved.get();
+            if (reserved != SEALED && current.reserved.compareAndSet(reserved, SEALED)) {
+                awaitPublished(current, reserved);
+                return current;
+            }
+            backOff(spins); // another thread is replacing the table
+        }
+    }
+
+    /**
+     * Lets edit change a sealed table and then publishes the result as the new table. A new table is always published,
+     * even if edit throws, otherwise every other writer would wait on the sealed table forever.
+     */
+    private <R> R finishEdit(Table sealed, Function<Draft, R> edit) {
+        Draft draft = new Draft(sealed);
+        try {
+            return edit.apply(draft);
+        } finally {
+            table = new Table(draft.arr, draft.size);
+        }
+    }
+
+    private <R> R edit(Function<Draft, R> edit) {
+        return finishEdit(seal(), edit);
+    }
+
+    private static void checkIndex(int index, int bound, int size) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException(String.format("Index %d is out of bounds for size %d", index, size));
+        }
+    }
+
+    /**
+     * Returns an unmodifiable view of the list as it is right now. Changes made after this call are not seen by the
+     * snapshot, and nothing is copied to make it.
+     * @return A snapshot of the list
+     */
+    public List<T> snapshot() {
+        Table current = table;
+        return Collections.unmodifiableList(
+                Arrays.asList((T[]) current.arr).subList(0, current.published.get()));
+    }
+
+    @Override
+    public int size() {
+        return table.published.get();
+    }
+
+    @Override
+    public T get(int index) {
+        Table current = table;
+        int size = current.published.get(); // reading published first makes the elements below it visible
+        checkIndex(index, size, size);
+        return (T) current.arr[index];
+    }
+
+    /**
+     * Appends t to the end of the list. Appending threads only compete for the next index with a compare and swap, they
+     * never lock. If the table is full, the thread that seals it also grows it.
+     * @param t The element to add
+     * @return true
+     */
+    @Override
+    public boolean add(T t) {
+        for (int spins = 0; ; spins++) {
+            Table current = table;
+            int index = current.reserved.get();
+            if (index == SEALED) {
+                backOff(spins); // another thread is replacing the table
+            } else if (index == current.arr.length) {
+                if (current.reserved.compareAndSet(index, SEALED)) {
+                    awaitPublished(current, index);
+                    finishEdit(current, draft -> draft.writable(draft.size + 1));
+                }
+            } else if (current.reserved.compareAndSet(index, index + 1)) {
+                current.arr[index] = t;
+                // elements are published in index order, so this waits for the appends that reserved earlier indexes
+                awaitPublished(current, index);
+                current.published.set(index + 1);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void add(int index, T element) {
+        edit(draft -> {
+            checkIndex(index, draft.size + 1, draft.size);
+            Object[] arr = draft.writable(draft.size + 1);
+            System.arraycopy(arr, index, arr, index + 1, draft.size - index);
+            arr[index] = element;
+            draft.size++;
+            return null;
+        });
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends T> c) {
+        Object[] ca = c.toArray();
+        return edit(draft -> {
+            checkIndex(index, draft.size + 1, draft.size);
+            if (ca.length == 0) {
+                return false;
+            }
+            Object[] arr = draft.writable(draft.size + ca.length);
+            System.arraycopy(arr, index, arr, index + ca.length, draft.size - index);
+            System.arraycopy(ca, 0, arr, index, ca.length);
+            draft.size += ca.length;
+            return true;
+        });
+    }
+
+    @Override
+    public T set(int index, T element) {
+        return edit(draft -> {
+            checkIndex(index, draft.size, draft.size);
+            Object[] arr = draft.writable(draft.size);
+            T hold = (T) arr[index];
+            arr[index] = element;
+            return hold;
+        });
+    }
+
+    @Override
+    public T remove(int index) {
+        return edit(draft -> {
+            checkIndex(index, draft.size, draft.size);
+            Object[] arr = draft.writable(draft.size);
+            T hold = (T) arr[index];
+            System.arraycopy(arr, index + 1, arr, index, draft.size - index - 1);
+            draft.size--;
+            arr[draft.size] = null;
+            return hold;
+        });
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return edit(draft -> {
+            for (int i = 0; i < draft.size; i++) {
+                if (Objects.equals(o, draft.arr[i])) {
+                    Object[] arr = draft.writable(draft.size);
+                    System.arraycopy(arr, i + 1, arr, i, draft.size - i - 1);
+                    draft.size--;
+                    arr[draft.size] = null;
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        return edit(draft -> {
+            Object[] kept = new Object[draft.arr.length];
+            int write = 0;
+            for (int i = 0; i < draft.size; i++) {
+                if (!filter.test((T) draft.arr[i])) {
+                    kept[write++] = draft.arr[i];
+                }
+            }
+            if (write == draft.size) {
+                return false;
+            }
+            draft.arr = kept;
+            draft.size = write;
+            return true;
+        });
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        return removeIf(c::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        return removeIf(t -> !c.contains(t));
+    }
+
+    @Override
+    public void clear() {
+        edit(draft -> {
+            draft.arr = new Object[DEFAULT_SIZE];
+            draft.size = 0;
+            return null;
+        });
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return snapshot().iterator();
+    }
+
+    @Override
+    public ListIterator<T> listIterator(int index) {
+        return snapshot().listIterator(index);
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        Table current = table;
+        return Spliterators.spliterator(current.arr, 0, current.published.get(),
+                                        Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+}
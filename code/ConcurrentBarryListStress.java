@@ -0,0 +1,86 @@
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A stress test for {@link ConcurrentBarryList}. Every thread runs a mix of reads and appends on one shared list for a
+ * fixed amount of time, and the throughput is printed for every thread count from 1 up to the amount of processors
+ * (or the first argument). A {@link BarryList} behind {@link Collections#synchronizedList(List)}, which is what we had
+ * to use before, is run the same way to compare against.
+ *
+ * <p>Usage: {@code java ConcurrentBarryListStress [max threads] [milliseconds per run] [percent of operations that are
+ * appends]}
+ */
+public class ConcurrentBarryListStress {
+
+    private static final int PRELOADED = 100000; // elements in the list before each run starts
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        int appendPercent = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        System.out.printf("%d%% appends, %d ms per run%n", appendPercent, millis);
+        System.out.printf("%8s %22s %22s%n", "threads", "ConcurrentBarryList", "synchronized BarryList");
+        for (int threads = 1; threads <= maxThreads; threads++) {
+            double concurrent = run(ConcurrentBarryList::new, threads, millis, appendPercent);
+            double synchronizedList = run(() -> Collections.synchronizedList(new BarryList<>()), threads, millis,
+                                          appendPercent);
+            System.out.printf("%8d %16.0f ops/ms %16.0f ops/ms%n", threads, concurrent, synchronizedList);
+        }
+    }
+
+    /**
+     * Runs the workload on a new list with the given amount of threads.
+     * @return The throughput in operations per millisecond
+     */
+    static double run(Supplier<List<Integer>> factory, int threads, long millis, int appendPercent)
+            throws InterruptedException {
+        List<Integer> list = factory.get();
+        for (int i = 0; i < PRELOADED; i++) {
+            list.add(i);
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long done = 0;
+                long sink = 0; // so the reads can not be optimized away
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (running.get()) {
+                    if (random.nextInt(100) < appendPercent) {
+                        list.add((int) done);
+                    } else {
+                        sink += list.get(random.nextInt(PRELOADED));
+                    }
+                    done++;
+                }
+                operations.add(done + (sink == 42 ? 1 : 0));
+            });
+            workers[t].start();
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        Thread.sleep(millis);
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - startTime;
+
+        return operations.sum() / (elapsed / 1e6);
+    }
+}
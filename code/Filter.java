@@ -1,9 +1,28 @@
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class Filter {
 
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
     /**
      * The String returned from the method contains all (and only) the characters found in the first String for which
      * {@link String#compareTo(String)} returns a negative value. It has a time complexity of O(n) with n as the
@@ -14,18 +33,195 @@ public class Filter {
      * @return the characters found in the first String for which the compareTo method returns a negative value
      */
     public String filter(String str, String check) {
+        checkLength(check);
         StringBuilder out = new StringBuilder();
+        filter(str, 0, str.length(), check, out);
+        return out.toString();
+    }
 
-        for (int i = 0; i < str.length(); i += check.length()) {
-            String substr = str.substring(i, Math.min((i + check.length()), str.length()));
-            if (substr.compareTo(check) < 0) {
-                out.append(substr);
-            }
+    /**
+     * Does the same thing as {@link #filter(String, String)}, but splits str into segments that are filtered at the
+     * same time on the common {@link ForkJoinPool}. Every chunk starts at a multiple of check.length(), so as long as
+     * the segments also start at one the chunks are exactly the same as they would be when filtering sequentially, and
+     * putting the results of the segments back together in order gives the same String. Strings shorter than
+     * {@link #PARALLEL_THRESHOLD} are just filtered sequentially, since splitting them up costs more than it saves.
+     * @param str The string to be compared
+     * @param check The string its being compared against - should be 1 character
+     * @return the characters found in the first String for which the compareTo method returns a negative value
+     */
+    public String parallelFilter(String str, String check) {
+        return parallelFilter(str, check, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Does the same thing as {@link #parallelFilter(String, String)} on pool instead of the common pool.
+     */
+    public String parallelFilter(String str, String check, ForkJoinPool pool) {
+        checkLength(check);
+        int parallelism = pool.getParallelism();
+        if (str.length() < PARALLEL_THRESHOLD || parallelism < 2) {
+            return filter(str, check);
         }
 
+        // a few segments per thread so that a thread that finishes early can take work from the others
+        int stride = check.length();
+        int segmentLength = Math.max(PARALLEL_THRESHOLD / 4, str.length() / (parallelism * 4));
+        segmentLength = Math.max(stride, segmentLength / stride * stride);
+        StringBuilder[] segments = new StringBuilder[(str.length() + segmentLength - 1) / segmentLength];
+        pool.invoke(new SegmentTask(str, check, segmentLength, segments, 0, segments.length));
+
+        int length = 0;
+        for (StringBuilder segment : segments) {
+            length += segment.length();
+        }
+        StringBuilder out = new StringBuilder(length);
+        for (StringBuilder segment : segments) {
+            out.append(segment);
+        }
         return out.toString();
     }
 
+    /**
+     * Filters the segments from start to end, splitting them in half until there is only one left.
+     */
+    private static class SegmentTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final String str;
+        private final String check;
+        private final int segmentLength;
+        private final StringBuilder[] segments;
+        private final int start;
+        private final int end;
+
+        SegmentTask(String str, String check, int segmentLength, StringBuilder[] segments, int start, int end) {
+            this.str = str;
+            this.check = check;
+            this.segmentLength = segmentLength;
+            this.segments = segments;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start == 1) {
+                int from = start * segmentLength;
+                int to = (int) Math.min((long) from + segmentLength, str.length());
+                StringBuilder out = new StringBuilder();
+                filter(str, from, to, check, out);
+                segments[start] = out;
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new SegmentTask(str, check, segmentLength, segments, start, middle),
+                      new SegmentTask(str, check, segmentLength, segments, middle, end));
+        }
+    }
+
+    /**
+     * Appends the chunks of str[from, to) that are kept to out. from has to be a multiple of check.length().
+     */
+    private static void filter(String str, int from, int to, String check, StringBuilder out) {
+        // comparing each chunk where it is instead of making a substring of it, so nothing is allocated per chunk
+        for (int i = from; i < to; i += check.length()) {
+            int end = Math.min((i + check.length()), to);
+            if (compareChunk(str, i, end, check) < 0) {
+                out.append(str, i, end);
+            }
+        }
+    }
+
+    /**
+     * Does the same thing as {@link #filter(String, String)}, but reads the characters from in and writes the ones that
+     * are kept to out as it goes. Only a buffer of about {@link #DEFAULT_BUFFER_SIZE} characters is used no matter how
+     * long the input is, so this can filter files that are far too large to fit in memory. Neither in nor out is
+     * closed, but out is flushed at the end.
+     * @param in Where the string to be compared is read from
+     * @param out Where the kept characters are written to
+     * @param check The string its being compared against - should be 1 character
+     * @throws IOException If in or out throw one
+     */
+    public void filter(Reader in, Writer out, String check) throws IOException {
+        filter(in, out, check, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Does the same thing as {@link #filter(Reader, Writer, String)} for files, decoding and encoding the characters
+     * with charset. Neither channel is closed.
+     * @param in The channel the string to be compared is read from
+     * @param out The channel the kept characters are written to
+     * @param check The string its being compared against - should be 1 character
+     * @param charset The charset both files are in
+     * @throws IOException If reading or writing one of the channels fails
+     */
+    public void filter(FileChannel in, FileChannel out, String check, Charset charset) throws IOException {
+        Reader reader = Channels.newReader(in, charset.newDecoder(), -1);
+        Writer writer = Channels.newWriter(out, charset.newEncoder(), -1);
+        filter(reader, writer, check);
+    }
+
+    void filter(Reader in, Writer out, String check, int bufferSize) throws IOException {
+        checkLength(check);
+        int chunk = check.length();
+        // the buffer has to hold a whole number of chunks so that no chunk is ever split between two reads
+        char[] buffer = new char[Math.max(1, bufferSize / chunk) * chunk];
+
+        int filled;
+        do {
+            filled = 0;
+            int read;
+            while (filled < buffer.length && (read = in.read(buffer, filled, buffer.length - filled)) != -1) {
+                filled += read;
+            }
+
+            for (int i = 0; i < filled; i += chunk) {
+                int end = Math.min(i + chunk, filled);
+                if (compareChunk(buffer, i, end, check) < 0) {
+                    out.write(buffer, i, end - i);
+                }
+            }
+        } while (filled == buffer.length);
+        out.flush();
+    }
+
+    /**
+     * Compares str[start, end) to check the same way {@link String#compareTo(String)} would, without having to make a
+     * substring first.
+     */
+    private static int compareChunk(String str, int start, int end, String check) {
+        int length = end - start;
+        int limit = Math.min(length, check.length());
+        for (int k = 0; k < limit; k++) {
+            char a = str.charAt(start + k);
+            char b = check.charAt(k);
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return length - check.length();
+    }
+
+    private static int compareChunk(char[] chars, int start, int end, String check) {
+        int length = end - start;
+        int limit = Math.min(length, check.length());
+        for (int k = 0; k < limit; k++) {
+            char a = chars[start + k];
+            char b = check.charAt(k);
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return length - check.length();
+    }
+
+    private static void checkLength(String check) {
+        if (check.isEmpty()) {
+            // the chunks would be 0 characters long, so the input would never be walked through
+            throw new IllegalArgumentException("check can not be empty");
+        }
+    }
+
     @Test
     public void testFilter() {
         assertEquals("Hell ld!", filter("Hello world!", "o"));
@@ -36,5 +232,62 @@ public class Filter {
         assertEquals("aaa", filter("adadaddv", "c"));
         assertEquals("ababab", filter("abcdeabcdealcbe", "c"));
         assertEquals("cl", filter("cool", "o"));
+        assertEquals("abab", filter("abcdab", "ac"));
+        assertEquals("aaa", filter("aaabbbb", "abc"));
+        assertThrows(IllegalArgumentException.class, () -> filter("abc", ""));
+    }
+
+    @Test
+    public void testParallelFilter() {
+        Random random = new Random(14);
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < PARALLEL_THRESHOLD * 5 + 3; i++) {
+            input.append((char) ('a' + random.nextInt(26)));
+        }
+        String str = input.toString();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (String check : new String[]{"m", "mq", "kkk", "abcdefg"}) {
+                assertEquals(filter(str, check), parallelFilter(str, check, pool));
+                assertEquals(filter(str, check), parallelFilter(str, check));
+            }
+            assertEquals("cl", parallelFilter("cool", "o", pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testFilterStream() throws IOException {
+        Random random = new Random(13);
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            input.append((char) ('a' + random.nextInt(26)));
+        }
+        String str = input.toString();
+
+        // small buffers so that the input has to be read in many pieces
+        for (String check : new String[]{"m", "mq", "kkk"}) {
+            for (int bufferSize : new int[]{1, 7, 64, 100000}) {
+                StringWriter out = new StringWriter();
+                filter(new StringReader(str), out, check, bufferSize);
+                assertEquals(filter(str, check), out.toString());
+            }
+        }
+
+        Path in = Files.createTempFile("filter", ".in");
+        Path out = Files.createTempFile("filter", ".out");
+        try {
+            Files.writeString(in, str);
+            try (FileChannel inChannel = FileChannel.open(in);
+                 FileChannel outChannel = FileChannel.open(out, StandardOpenOption.WRITE)) {
+                filter(inChannel, outChannel, "n", StandardCharsets.UTF_8);
+            }
+            assertEquals(filter(str, "n"), Files.readString(out));
+        } finally {
+            Files.delete(in);
+            Files.delete(out);
+        }
     }
 }
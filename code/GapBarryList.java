@@ -0,0 +1,174 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * A version of {@link BarryList} that stores its elements in a gap buffer. The data array has an empty gap in it which
+ * is kept at the position of the last insertion or removal, so inserting or removing at (or near) the same place as
+ * the last edit only has to move the elements between the two positions instead of the whole tail of the list. This
+ * is the same trick text editors use for the text around the cursor. Appending to the end leaves the gap at the end,
+ * so this list is just as fast as a {@link BarryList} for lists that are only ever added to.
+ *
+ * <p>Random access still works the same way as any other {@link java.util.List}, an index before the gap is used as
+ * is and an index after the gap is moved past it.
+ */
+public class GapBarryList<T> extends AbstractList<T> implements RandomAccess {
+
+    private static final int DEFAULT_SIZE = 10; // Using 10, because that is the default size in ArrayLists
+
+    private Object[] arr;
+    private int gapStart; // the first empty index
+    private int gapEnd; // the first index after the gap that holds an element
+
+    public GapBarryList() {
+        this(DEFAULT_SIZE);
+    }
+
+    public GapBarryList(int initialSize) {
+        arr = new Object[initialSize];
+        gapStart = 0;
+        gapEnd = initialSize;
+    }
+
+    private int gapLength() {
+        return gapEnd - gapStart;
+    }
+
+    /**
+     * Converts an index in the list into an index in the data array.
+     */
+    private int position(int index) {
+        return index < gapStart ? index : index + gapLength();
+    }
+
+    private void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException(String.format("Index %d is out of bounds for size %d", index, size()));
+        }
+    }
+
+    /**
+     * Moves the gap so that it starts at index. Only the elements between the old and the new position of the gap are
+     * moved, and the slots they leave behind are cleared so that they can be garbage collected.
+     */
+    private void moveGap(int index) {
+        if (index < gapStart) {
+            int count = gapStart - index;
+            System.arraycopy(arr, index, arr, gapEnd - count, count);
+            Arrays.fill(arr, index, Math.min(gapStart, gapEnd - count), null);
+            gapStart -= count;
+            gapEnd -= count;
+        } else if (index > gapStart) {
+            int count = index - gapStart;
+            System.arraycopy(arr, gapEnd, arr, gapStart, count);
+            Arrays.fill(arr, Math.max(gapEnd, gapStart + count), gapEnd + count, null);
+            gapStart += count;
+            gapEnd += count;
+        }
+    }
+
+    /**
+     * Makes sure the gap can hold at least needed more elements. The data array is at least doubled so that a long
+     * run of insertions only has to grow it a few times.
+     */
+    private void ensureGap(int needed) {
+        if (gapLength() >= needed) {
+            return;
+        }
+
+        int size = size();
+        int newLength = Math.max(Math.max(arr.length * 2, size + needed), DEFAULT_SIZE);
+        Object[] newArr = new Object[newLength];
+        int tail = arr.length - gapEnd;
+        System.arraycopy(arr, 0, newArr, 0, gapStart);
+        System.arraycopy(arr, gapEnd, newArr, newLength - tail, tail);
+        arr = newArr;
+        gapEnd = newLength - tail;
+    }
+
+    @Override
+    public int size() {
+        return arr.length - gapLength();
+    }
+
+    @Override
+    public T get(int index) {
+        checkIndex(index, size());
+        return (T) arr[position(index)];
+    }
+
+    @Override
+    public T set(int index, T element) {
+        checkIndex(index, size());
+        int position = position(index);
+        T hold = (T) arr[position];
+        arr[position] = element;
+        return hold;
+    }
+
+    @Override
+    public boolean add(T t) {
+        add(size(), t);
+        return true;
+    }
+
+    @Override
+    public void add(int index, T element) {
+        checkIndex(index, size() + 1);
+        moveGap(index);
+        ensureGap(1);
+        arr[gapStart] = element;
+        gapStart++;
+        modCount++;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        return addAll(size(), c);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends T> c) {
+        checkIndex(index, size() + 1);
+        Object[] ca = c.toArray();
+        if (ca.length == 0) {
+            return false;
+        }
+        moveGap(index);
+        ensureGap(ca.length);
+        System.arraycopy(ca, 0, arr, gapStart, ca.length);
+        gapStart += ca.length;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public T remove(int index) {
+        checkIndex(index, size());
+        moveGap(index);
+        // the element being removed is now the first element after the gap, so the gap just has to grow over it
+        T hold = (T) arr[gapEnd];
+        arr[gapEnd] = null;
+        gapEnd++;
+        modCount++;
+        return hold;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        moveGap(fromIndex);
+        int count = toIndex - fromIndex;
+        Arrays.fill(arr, gapEnd, gapEnd + count, null);
+        gapEnd += count;
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(arr, null);
+        gapStart = 0;
+        gapEnd = arr.length;
+        modCount++;
+    }
+}
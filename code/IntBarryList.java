@@ -0,0 +1,184 @@
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A version of {@link BarryList} that stores ints directly in a {@code int[]} instead of boxing every value into
+ * an {@link Integer}. It grows the same way {@link BarryList#add(Object)} does (doubling the data array when it is full),
+ * so it can be used anywhere a {@code BarryList<Integer>} would have been used without paying for the boxes.
+ */
+public class IntBarryList {
+
+    private static final int DEFAULT_SIZE = 10; // Using 10, because that is the default size in ArrayLists
+
+    private int[] arr;
+    private int size;
+
+    public IntBarryList() {
+        this(DEFAULT_SIZE);
+    }
+
+    public IntBarryList(int initialSize) {
+        arr = new int[initialSize];
+        size = 0;
+    }
+
+    /**
+     * Collects all of the values of a {@link IntStream} into a new list without boxing any of them.
+     * @param stream The stream to collect
+     * @return A list containing every value of the stream in encounter order
+     */
+    public static IntBarryList of(IntStream stream) {
+        return stream.collect(IntBarryList::new, IntBarryList::add, IntBarryList::addAll);
+    }
+
+    private void grow() {
+        // doubling our data array's size, an empty array is given the default size instead because doubling 0 is 0
+        arr = Arrays.copyOf(arr, arr.length == 0 ? DEFAULT_SIZE : arr.length * 2);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new ArrayIndexOutOfBoundsException(String.format("Index %d is out of bounds for size %d", index, size));
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean add(int value) {
+        if (arr.length == size) {
+            grow();
+        }
+        arr[size] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * Adds every value of another list to the end of this one. The data array is grown at most once.
+     * @param other The list to add
+     * @return If this list changed
+     */
+    public boolean addAll(IntBarryList other) {
+        if (other.size == 0) {
+            return false;
+        }
+        if (size + other.size > arr.length) {
+            arr = Arrays.copyOf(arr, Math.max(size + other.size, arr.length * 2));
+        }
+        System.arraycopy(other.arr, 0, arr, size, other.size);
+        size += other.size;
+        return true;
+    }
+
+    /**
+     * Inserts value at index, moving everything after it up by one.
+     * @param index Where the value will be
+     * @param value The value to insert
+     */
+    public void add(int index, int value) {
+        if (index < 0 || index > size) {
+            throw new ArrayIndexOutOfBoundsException(String.format("Index %d is out of bounds for size %d", index, size));
+        }
+        if (arr.length == size) {
+            grow();
+        }
+        System.arraycopy(arr, index, arr, index + 1, size - index);
+        arr[index] = value;
+        size++;
+    }
+
+    /**
+     * Removes the value at index, moving everything after it down by one. This is not called remove so it can not be
+     * mixed up with removing a value.
+     * @param index The index to remove
+     * @return The value that was removed
+     */
+    public int removeAt(int index) {
+        checkIndex(index);
+        int hold = arr[index];
+        System.arraycopy(arr, index + 1, arr, index, size - index - 1);
+        size--;
+        return hold;
+    }
+
+    public int get(int index) {
+        checkIndex(index);
+        return arr[index];
+    }
+
+    public int set(int index, int value) {
+        checkIndex(index);
+        int hold = arr[index];
+        arr[index] = value;
+        return hold;
+    }
+
+    public int indexOf(int value) {
+        for (int i = 0; i < size; i++) {
+            if (arr[i] == value) {
+                return i;
+            }
+        }
+        return -1; // not found
+    }
+
+    public int lastIndexOf(int value) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (arr[i] == value) {
+                return i;
+            }
+        }
+        return -1; // not found
+    }
+
+    public boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    /**
+     * Finds value with a binary search, so the list has to be sorted.
+     * @param value The value to find
+     * @return The index of value, or (-(insertion point) - 1) if it is not in the list, like
+     * {@link Arrays#binarySearch(int[], int)}
+     */
+    public int binarySearch(int value) {
+        return Arrays.binarySearch(arr, 0, size, value);
+    }
+
+    /**
+     * Sorts the list in ascending order. This uses {@link Arrays#sort(int[], int, int)}, which does not need a
+     * comparator because the values are not boxed.
+     */
+    public void sort() {
+        Arrays.sort(arr, 0, size);
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return A copy of the values in this list, the copy is exactly {@link #size()} long
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(arr, size);
+    }
+
+    /**
+     * @return A sequential {@link IntStream} over the values in this list, none of the values get boxed
+     */
+    public IntStream stream() {
+        return Arrays.stream(arr, 0, size);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,143 @@
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * A version of {@link BarryList} that stores longs directly in a {@code long[]} instead of boxing every value into
+ * a {@link Long}. It grows the same way {@link BarryList#add(Object)} does (doubling the data array when it is full),
+ * so it can be used anywhere a {@code BarryList<Long>} would have been used without paying for the boxes.
+ */
+public class LongBarryList {
+
+    private static final int DEFAULT_SIZE = 10; // Using 10, because that is the default size in ArrayLists
+
+    private long[] arr;
+    private int size;
+
+    public LongBarryList() {
+        this(DEFAULT_SIZE);
+    }
+
+    public LongBarryList(int initialSize) {
+        arr = new long[initialSize];
+        size = 0;
+    }
+
+    /**
+     * Collects all of the values of a {@link LongStream} into a new list without boxing any of them.
+     * @param stream The stream to collect
+     * @return A list containing every value of the stream in encounter order
+     */
+    public static LongBarryList of(LongStream stream) {
+        return stream.collect(LongBarryList::new, LongBarryList::add, LongBarryList::addAll);
+    }
+
+    private void grow() {
+        // doubling our data array's size, an empty array is given the default size instead because doubling 0 is 0
+        arr = Arrays.copyOf(arr, arr.length == 0 ? DEFAULT_SIZE : arr.length * 2);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new ArrayIndexOutOfBoundsException(String.format("Index %d is out of bounds for size %d", index, size));
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean add(long value) {
+        if (arr.length == size) {
+            grow();
+        }
+        arr[size] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * Adds every value of another list to the end of this one. The data array is grown at most once.
+     * @param other The list to add
+     * @return If this list changed
+     */
+    public boolean addAll(LongBarryList other) {
+        if (other.size == 0) {
+            return false;
+        }
+        if (size + other.size > arr.length) {
+            arr = Arrays.copyOf(arr, Math.max(size + other.size, arr.length * 2));
+        }
+        System.arraycopy(other.arr, 0, arr, size, other.size);
+        size += other.size;
+        return true;
+    }
+
+    public long get(int index) {
+        checkIndex(index);
+        return arr[index];
+    }
+
+    public long set(int index, long value) {
+        checkIndex(index);
+        long hold = arr[index];
+        arr[index] = value;
+        return hold;
+    }
+
+    public int indexOf(long value) {
+        for (int i = 0; i < size; i++) {
+            if (arr[i] == value) {
+                return i;
+            }
+        }
+        return -1; // not found
+    }
+
+    public int lastIndexOf(long value) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (arr[i] == value) {
+                return i;
+            }
+        }
+        return -1; // not found
+    }
+
+    public boolean contains(long value) {
+        return indexOf(value) >= 0;
+    }
+
+    /**
+     * Sorts the list in ascending order. This uses {@link Arrays#sort(long[], int, int)}, which does not need a
+     * comparator because the values are not boxed.
+     */
+    public void sort() {
+        Arrays.sort(arr, 0, size);
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return A copy of the values in this list, the copy is exactly {@link #size()} long
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(arr, size);
+    }
+
+    /**
+     * @return A sequential {@link LongStream} over the values in this list, none of the values get boxed
+     */
+    public LongStream stream() {
+        return Arrays.stream(arr, 0, size);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,284 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A version of {@link BarryList} that keeps its elements outside of the heap. Every element is stored as a fixed width
+ * record by a {@link RecordCodec}, so the garbage collector never has to look at them, no matter how many there are.
+ *
+ * <p>A list made with {@link #MappedBarryList(RecordCodec)} lives in direct {@link ByteBuffer}s and is gone once it is
+ * garbage collected. A list made with {@link #open(Path, RecordCodec)} lives in a memory mapped file instead. The
+ * file is just a small header followed by the records, so opening an existing file only maps it back into memory
+ * without reading (or deserializing) any of the records, which makes it O(1) no matter how large the list is.
+ *
+ * <p>A single {@link ByteBuffer} can only hold 2GB, so the records are split into segments of up to
+ * {@link #SEGMENT_BYTES} bytes, each of which is its own buffer. Like {@link BarryList}, the capacity doubles every time
+ * the list is full.
+ */
+public class MappedBarryList<T> extends AbstractList<T> implements RandomAccess, Closeable {
+
+    static final int SEGMENT_BYTES = 1 << 30;
+    private static final int HEADER_SIZE = 16; // magic number, record size, and the amount of records
+    private static final int MAGIC = 0x42415259; // "BARY"
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private final RecordCodec<T> codec;
+    private final int recordSize;
+    private final int recordsPerSegment;
+    private final FileChannel channel; // null if the list is not backed by a file
+    private final ByteBuffer header;
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private long capacity;
+    private int size;
+
+    /**
+     * Makes an empty list that is stored in direct buffers and not in a file.
+     * @param codec The codec used to store the elements
+     */
+    public MappedBarryList(RecordCodec<T> codec) {
+        this(codec, null, ByteBuffer.allocate(HEADER_SIZE).order(ORDER), 0, 0, SEGMENT_BYTES);
+    }
+
+    private MappedBarryList(RecordCodec<T> codec, FileChannel channel, ByteBuffer header, long capacity, int size,
+                            int segmentBytes) {
+        this.codec = codec;
+        this.recordSize = codec.size();
+        if (recordSize <= 0 || recordSize > segmentBytes) {
+            throw new IllegalArgumentException(String.format("Record size %d is not supported", recordSize));
+        }
+        this.recordsPerSegment = segmentBytes / recordSize;
+        this.channel = channel;
+        this.header = header;
+        this.size = size;
+        this.capacity = 0;
+
+        header.putInt(0, MAGIC);
+        header.putInt(4, recordSize);
+        header.putLong(8, size);
+        remap(capacity);
+    }
+
+    /**
+     * Opens the list stored in file, or makes a new empty one there if the file does not exist or is empty. Nothing
+     * but the header is read, the records are only paged in by the operating system as they are used.
+     * @param file The file the list is stored in
+     * @param codec The codec the records were written with, its size has to match the size in the file
+     * @return The list stored in the file
+     * @throws IOException If the file can not be opened or mapped, is not a list with records of this size, or is too
+     * short for the amount of records in its header
+     */
+    public static <T> MappedBarryList<T> open(Path file, RecordCodec<T> codec) throws IOException {
+        return open(file, codec, SEGMENT_BYTES);
+    }
+
+    static <T> MappedBarryList<T> open(Path file, RecordCodec<T> codec, int segmentBytes) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                               StandardOpenOption.WRITE);
+        try {
+            boolean created = channel.size() == 0;
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE).order(ORDER);
+            int size = 0;
+            long capacity = 0;
+            if (!created) {
+                if (header.getInt(0) != MAGIC) {
+                    throw new IOException(String.format("%s is not a MappedBarryList file", file));
+                }
+                if (header.getInt(4) != codec.size()) {
+                    throw new IOException(String.format("%s has records of size %d, not %d", file,
+                                                        header.getInt(4), codec.size()));
+                }
+                long stored = header.getLong(8);
+                capacity = (channel.size() - HEADER_SIZE) / codec.size();
+                if (stored < 0 || stored > Integer.MAX_VALUE || stored > capacity) {
+                    // a truncated or corrupt file, which would only fail later when a missing record is read
+                    throw new IOException(String.format("%s says it has %d records, but only has room for %d", file,
+                                                        stored, capacity));
+                }
+                size = (int) stored;
+            }
+            return new MappedBarryList<>(codec, channel, header, capacity, size, segmentBytes);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Maps (or allocates) the segments so that the list can hold newCapacity records. Segments that are already the
+     * right size are left alone, a segment that has to get bigger is mapped again. A direct segment has to be copied
+     * into its new buffer, a mapped segment does not because both mappings show the same part of the file.
+     */
+    private void remap(long newCapacity) {
+        int first = capacity == 0 ? 0 : (int) ((capacity - 1) / recordsPerSegment);
+        int last = newCapacity == 0 ? -1 : (int) ((newCapacity - 1) / recordsPerSegment);
+        try {
+            for (int s = first; s <= last; s++) {
+                long start = (long) s * recordsPerSegment;
+                int bytes = (int) Math.min(recordsPerSegment, newCapacity - start) * recordSize;
+                ByteBuffer segment;
+                if (channel != null) {
+                    segment = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + start * recordSize, bytes);
+                } else {
+                    segment = ByteBuffer.allocateDirect(bytes);
+                    if (s < segments.size()) {
+                        segment.put(segments.get(s).duplicate().clear());
+                    }
+                }
+                segment.order(ORDER);
+                if (s < segments.size()) {
+                    segments.set(s, segment);
+                } else {
+                    segments.add(segment);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        capacity = newCapacity;
+    }
+
+    /**
+     * Makes sure the list can hold at least minCapacity elements without having to map more memory.
+     * @param minCapacity The amount of elements the list should be able to hold
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > capacity) {
+            remap(Math.max(minCapacity, Math.max(capacity * 2, DEFAULT_CAPACITY)));
+        }
+    }
+
+    private ByteBuffer segment(int index) {
+        return segments.get(index / recordsPerSegment);
+    }
+
+    private int offset(int index) {
+        return (index % recordsPerSegment) * recordSize;
+    }
+
+    private void setSize(int size) {
+        this.size = size;
+        header.putLong(8, size);
+        modCount++;
+    }
+
+    /**
+     * Copies the raw bytes of the record at from over the record at to.
+     */
+    private void copyRecord(int from, int to) {
+        int fromOffset = offset(from);
+        ByteBuffer source = segment(from).duplicate();
+        source.limit(fromOffset + recordSize).position(fromOffset);
+        ByteBuffer destination = segment(to).duplicate();
+        destination.position(offset(to));
+        destination.put(source);
+    }
+
+    private void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException(String.format("Index %d is out of bounds for size %d", index, size));
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public T get(int index) {
+        checkIndex(index, size);
+        return codec.read(segment(index), offset(index));
+    }
+
+    @Override
+    public T set(int index, T element) {
+        Objects.requireNonNull(element);
+        checkIndex(index, size);
+        ByteBuffer segment = segment(index);
+        int offset = offset(index);
+        T hold = codec.read(segment, offset);
+        codec.write(segment, offset, element);
+        return hold;
+    }
+
+    @Override
+    public boolean add(T t) {
+        Objects.requireNonNull(t);
+        ensureCapacity(size + 1);
+        codec.write(segment(size), offset(size), t);
+        setSize(size + 1);
+        return true;
+    }
+
+    /**
+     * Inserts element at index. Every record after index has to be moved, so this is O(n) just like it is for
+     * {@link BarryList}.
+     */
+    @Override
+    public void add(int index, T element) {
+        Objects.requireNonNull(element);
+        checkIndex(index, size + 1);
+        ensureCapacity(size + 1);
+        for (int i = size; i > index; i--) {
+            copyRecord(i - 1, i);
+        }
+        codec.write(segment(index), offset(index), element);
+        setSize(size + 1);
+    }
+
+    @Override
+    public T remove(int index) {
+        checkIndex(index, size);
+        T hold = get(index);
+        for (int i = index + 1; i < size; i++) {
+            copyRecord(i, i - 1);
+        }
+        setSize(size - 1);
+        return hold;
+    }
+
+    /**
+     * Removes every element. The memory (and the file) keeps its size, so the list can be filled again without
+     * having to map anything.
+     */
+    @Override
+    public void clear() {
+        setSize(0);
+    }
+
+    /**
+     * Writes every change to the file. This does nothing for a list that is not stored in a file.
+     */
+    public void force() {
+        if (channel == null) {
+            return;
+        }
+        ((MappedByteBuffer) header).force();
+        for (ByteBuffer segment : segments) {
+            ((MappedByteBuffer) segment).force();
+        }
+    }
+
+    /**
+     * Writes every change to the file and closes it. The list should not be used after it has been closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            force();
+            channel.close();
+        }
+    }
+}
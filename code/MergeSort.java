@@ -0,0 +1,305 @@
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The merge sort behind {@link BarryList#sort(Comparator)}. It is stable, finds the runs that are already sorted in the
+ * input instead of always splitting in half, and uses a single scratch array for the whole sort instead of allocating
+ * one for every merge. Runs shorter than {@link #INSERTION_SORT_CUTOFF} are grown with insertion sort, which is faster
+ * than merging for small ranges. Once a range is large enough it is split up and sorted on the common
+ * {@link ForkJoinPool}, and the halves are also merged in parallel.
+ */
+final class MergeSort {
+
+    static final int INSERTION_SORT_CUTOFF = 32;
+    private static final int MIN_GRANULARITY = 1 << 13; // the smallest range a fork join task will be given
+
+    private MergeSort() {
+    }
+
+    /**
+     * Sorts a[from, to) with c. If the range has at least parallelThreshold elements and the common pool has more than
+     * one thread, the sort is done in parallel.
+     * @param a The array to sort
+     * @param from The first index to sort (inclusive)
+     * @param to The last index to sort (exclusive)
+     * @param c The comparator to sort with, it can not be null
+     * @param parallelThreshold The smallest range that will be sorted in parallel
+     */
+    static void sort(Object[] a, int from, int to, Comparator<Object> c, int parallelThreshold) {
+        int n = to - from;
+        if (n < 2) {
+            return;
+        }
+        if (n <= INSERTION_SORT_CUTOFF) {
+            insertionSort(a, from, to, from + 1, c);
+            return;
+        }
+
+        // the scratch array is indexed from 0, so index i of a is index i - from of scratch
+        Object[] scratch = new Object[n];
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (n >= parallelThreshold && parallelism > 1) {
+            int granularity = Math.max(MIN_GRANULARITY, n / (parallelism << 2));
+            ForkJoinPool.commonPool().invoke(new SortTask(a, scratch, from, from, to, c, granularity));
+        } else {
+            sequentialSort(a, scratch, from, from, to, c);
+        }
+    }
+
+    /**
+     * Sorts a[lo, hi) by finding the natural runs and then merging neighbouring runs until only one is left.
+     */
+    private static void sequentialSort(Object[] a, Object[] scratch, int base, int lo, int hi, Comparator<Object> c) {
+        // bounds[0] is the start of the first run and bounds[i] is the end of run i, every run but the last is at
+        // least INSERTION_SORT_CUTOFF long so this is always big enough
+        int[] bounds = new int[(hi - lo) / INSERTION_SORT_CUTOFF + 2];
+        int count = 0;
+        bounds[count++] = lo;
+
+        int i = lo;
+        while (i < hi) {
+            int end = runEnd(a, i, hi, c);
+            if (end - i < INSERTION_SORT_CUTOFF) {
+                int forcedEnd = Math.min(hi, i + INSERTION_SORT_CUTOFF);
+                insertionSort(a, i, forcedEnd, end, c);
+                end = forcedEnd;
+            }
+            bounds[count++] = end;
+            i = end;
+        }
+
+        // merging runs in pairs until there is one run left, a leftover run is carried to the next pass as is
+        while (count > 2) {
+            int write = 1;
+            for (int r = 1; r < count; r += 2) {
+                if (r + 1 < count) {
+                    merge(a, scratch, base, bounds[r - 1], bounds[r], bounds[r + 1], c);
+                    bounds[write++] = bounds[r + 1];
+                } else {
+                    bounds[write++] = bounds[r];
+                }
+            }
+            count = write;
+        }
+    }
+
+    /**
+     * Finds where the run starting at lo ends. A strictly descending run is reversed so that every run is ascending,
+     * runs with equal elements are never reversed so the sort stays stable.
+     * @return The index after the last element of the run
+     */
+    private static int runEnd(Object[] a, int lo, int hi, Comparator<Object> c) {
+        int end = lo + 1;
+        if (end == hi) {
+            return end;
+        }
+
+        if (c.compare(a[end], a[lo]) < 0) {
+            while (end < hi && c.compare(a[end], a[end - 1]) < 0) {
+                end++;
+            }
+            reverse(a, lo, end);
+        } else {
+            while (end < hi && c.compare(a[end], a[end - 1]) >= 0) {
+                end++;
+            }
+        }
+        return end;
+    }
+
+    private static void reverse(Object[] a, int lo, int hi) {
+        for (hi--; lo < hi; lo++, hi--) {
+            Object hold = a[lo];
+            a[lo] = a[hi];
+            a[hi] = hold;
+        }
+    }
+
+    /**
+     * Binary insertion sort of a[lo, hi) where a[lo, sorted) is already sorted.
+     */
+    private static void insertionSort(Object[] a, int lo, int hi, int sorted, Comparator<Object> c) {
+        for (int i = sorted; i < hi; i++) {
+            Object pivot = a[i];
+            // inserting after any equal elements keeps the sort stable
+            int position = upperBound(a, lo, i, pivot, c);
+            System.arraycopy(a, position, a, position + 1, i - position);
+            a[position] = pivot;
+        }
+    }
+
+    /**
+     * Merges the sorted runs a[lo, mid) and a[mid, hi). Only the left run is copied into scratch, the merged output
+     * can never overwrite an element of the right run before it has been read.
+     */
+    private static void merge(Object[] a, Object[] scratch, int base, int lo, int mid, int hi, Comparator<Object> c) {
+        if (c.compare(a[mid - 1], a[mid]) <= 0) {
+            return; // the runs are already in order
+        }
+
+        System.arraycopy(a, lo, scratch, lo - base, mid - lo);
+        int left = lo - base;
+        int leftEnd = mid - base;
+        int right = mid;
+        int out = lo;
+        while (left < leftEnd && right < hi) {
+            if (c.compare(a[right], scratch[left]) < 0) {
+                a[out++] = a[right++];
+            } else {
+                a[out++] = scratch[left++];
+            }
+        }
+        System.arraycopy(scratch, left, a, out, leftEnd - left);
+    }
+
+    /**
+     * @return The first index in a[lo, hi) with an element larger than key
+     */
+    private static int upperBound(Object[] a, int lo, int hi, Object key, Comparator<Object> c) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (c.compare(key, a[mid]) < 0) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * @return The first index in a[lo, hi) with an element larger than or equal to key
+     */
+    private static int lowerBound(Object[] a, int lo, int hi, Object key, Comparator<Object> c) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (c.compare(a[mid], key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Sorts both halves of a range in parallel and then merges them in parallel.
+     */
+    private static final class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] a;
+        private final Object[] scratch;
+        private final int base;
+        private final int lo;
+        private final int hi;
+        private final Comparator<Object> c;
+        private final int granularity;
+
+        SortTask(Object[] a, Object[] scratch, int base, int lo, int hi, Comparator<Object> c, int granularity) {
+            this.a = a;
+            this.scratch = scratch;
+            this.base = base;
+            this.lo = lo;
+            this.hi = hi;
+            this.c = c;
+            this.granularity = granularity;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= granularity) {
+                sequentialSort(a, scratch, base, lo, hi, c);
+                return;
+            }
+
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new SortTask(a, scratch, base, lo, mid, c, granularity),
+                      new SortTask(a, scratch, base, mid, hi, c, granularity));
+            if (c.compare(a[mid - 1], a[mid]) <= 0) {
+                return; // the halves are already in order
+            }
+
+            // both halves are moved into scratch so they can be merged back into a from there
+            System.arraycopy(a, lo, scratch, lo - base, hi - lo);
+            new MergeTask(scratch, lo - base, mid - base, mid - base, hi - base, a, lo, c, granularity).compute();
+        }
+    }
+
+    /**
+     * Merges src[leftLo, leftHi) and src[rightLo, rightHi) into dst starting at out. The larger side is split at its
+     * middle element, that element's final position is found with a binary search in the other side, and both halves
+     * are then merged independently.
+     */
+    private static final class MergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] src;
+        private final int leftLo;
+        private final int leftHi;
+        private final int rightLo;
+        private final int rightHi;
+        private final Object[] dst;
+        private final int out;
+        private final Comparator<Object> c;
+        private final int granularity;
+
+        MergeTask(Object[] src, int leftLo, int leftHi, int rightLo, int rightHi, Object[] dst, int out,
+                  Comparator<Object> c, int granularity) {
+            this.src = src;
+            this.leftLo = leftLo;
+            this.leftHi = leftHi;
+            this.rightLo = rightLo;
+            this.rightHi = rightHi;
+            this.dst = dst;
+            this.out = out;
+            this.c = c;
+            this.granularity = granularity;
+        }
+
+        @Override
+        protected void compute() {
+            int leftLength = leftHi - leftLo;
+            int rightLength = rightHi - rightLo;
+            if (leftLength + rightLength <= granularity) {
+                sequentialMerge();
+                return;
+            }
+
+            if (leftLength >= rightLength) {
+                int leftMid = (leftLo + leftHi) >>> 1;
+                // equal elements from the right side have to end up after the pivot to keep the sort stable
+                int rightMid = lowerBound(src, rightLo, rightHi, src[leftMid], c);
+                int outMid = out + (leftMid - leftLo) + (rightMid - rightLo);
+                dst[outMid] = src[leftMid];
+                invokeAll(new MergeTask(src, leftLo, leftMid, rightLo, rightMid, dst, out, c, granularity),
+                          new MergeTask(src, leftMid + 1, leftHi, rightMid, rightHi, dst, outMid + 1, c, granularity));
+            } else {
+                int rightMid = (rightLo + rightHi) >>> 1;
+                // equal elements from the left side have to end up before the pivot to keep the sort stable
+                int leftMid = upperBound(src, leftLo, leftHi, src[rightMid], c);
+                int outMid = out + (leftMid - leftLo) + (rightMid - rightLo);
+                dst[outMid] = src[rightMid];
+                invokeAll(new MergeTask(src, leftLo, leftMid, rightLo, rightMid, dst, out, c, granularity),
+                          new MergeTask(src, leftMid, leftHi, rightMid + 1, rightHi, dst, outMid + 1, c, granularity));
+            }
+        }
+
+        private void sequentialMerge() {
+            int left = leftLo;
+            int right = rightLo;
+            int k = out;
+            while (left < leftHi && right < rightHi) {
+                if (c.compare(src[right], src[left]) < 0) {
+                    dst[k++] = src[right++];
+                } else {
+                    dst[k++] = src[left++];
+                }
+            }
+            System.arraycopy(src, left, dst, k, leftHi - left);
+            k += leftHi - left;
+            System.arraycopy(src, right, dst, k, rightHi - right);
+        }
+    }
+}
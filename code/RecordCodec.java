@@ -0,0 +1,82 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Turns values into fixed width records of bytes and back, so that {@link MappedBarryList} can store them outside of
+ * the heap. Every record written by a codec has to be exactly {@link #size()} bytes long. Codecs for the common boxed
+ * number types are given as constants.
+ */
+public interface RecordCodec<T> {
+
+    RecordCodec<Integer> INT = new RecordCodec<>() {
+        @Override
+        public int size() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Integer value) {
+            buffer.putInt(offset, value);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+    };
+
+    RecordCodec<Long> LONG = new RecordCodec<>() {
+        @Override
+        public int size() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Long value) {
+            buffer.putLong(offset, value);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    };
+
+    RecordCodec<Double> DOUBLE = new RecordCodec<>() {
+        @Override
+        public int size() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Double value) {
+            buffer.putDouble(offset, value);
+        }
+
+        @Override
+        public Double read(ByteBuffer buffer, int offset) {
+            return buffer.getDouble(offset);
+        }
+    };
+
+    /**
+     * @return The amount of bytes in every record, this can never change
+     */
+    int size();
+
+    /**
+     * Writes value into buffer starting at offset. Only the absolute get and put methods of the buffer should be used,
+     * the position and limit of the buffer belong to the list.
+     * @param buffer The buffer to write to
+     * @param offset The index of the first byte of the record
+     * @param value The value to write, it can not be null
+     */
+    void write(ByteBuffer buffer, int offset, T value);
+
+    /**
+     * Reads the record starting at offset in buffer.
+     * @param buffer The buffer to read from
+     * @param offset The index of the first byte of the record
+     * @return The value the record holds
+     */
+    T read(ByteBuffer buffer, int offset);
+}
@@ -0,0 +1,163 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the results of {@link LogicalOperator#legal(String)} for the sentences that were checked most recently, so
+ * checking a sentence that was seen before is just a hash lookup. Whitespace never changes whether a sentence is legal
+ * as long as the tokens stay apart, so sentences are stored with their whitespace trimmed and every run of it turned
+ * into a single space. That way "a & b" and " a  &  b" share a single entry.
+ *
+ * <p>The cache is split into segments that each have their own lock and evict their least recently used sentence once
+ * they are full, so threads checking different sentences rarely wait for each other. Sentences are checked outside of
+ * the lock, which means two threads missing on the same sentence at once might both check it.
+ */
+public class ValidationCache {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maximumSize The most sentences that are remembered at once
+     */
+    public ValidationCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException(String.format("Maximum size %d is less than 1", maximumSize));
+        }
+        int count = 1;
+        while (count < MAX_SEGMENTS && count * 2 <= maximumSize) {
+            count *= 2;
+        }
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            // the first maximumSize % count segments take one more so that they add up to exactly maximumSize
+            segments[i] = new Segment(maximumSize / count + (i < maximumSize % count ? 1 : 0));
+        }
+    }
+
+    /**
+     * Does the same thing as {@link LogicalOperator#legal(String)}, but only checks sentences that are not cached.
+     * @param sentence The sentence to check
+     * @return If the sentence is a legal logical sentence
+     */
+    public boolean legal(String sentence) {
+        String key = normalize(sentence);
+        int h = key.hashCode();
+        Segment segment = segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+
+        Boolean cached;
+        synchronized (segment) {
+            cached = segment.get(key); // get has to be locked too, since it moves the entry to the end
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        boolean legal = LogicalOperator.legal(key);
+        synchronized (segment) {
+            segment.put(key, legal);
+        }
+        return legal;
+    }
+
+    /**
+     * Trims sentence and turns every run of whitespace in it into a single space. A sentence that is already like that
+     * is returned as it is, so looking it up does not make a new String.
+     */
+    static String normalize(String sentence) {
+        int length = sentence.length();
+        boolean normal = length == 0 || (!isWhitespace(sentence.charAt(0))
+                && !isWhitespace(sentence.charAt(length - 1)));
+        for (int i = 0; normal && i < length; i++) {
+            char c = sentence.charAt(i);
+            if (isWhitespace(c) && (c != ' ' || isWhitespace(sentence.charAt(i + 1)))) {
+                normal = false;
+            }
+        }
+        if (normal) {
+            return sentence;
+        }
+
+        StringBuilder out = new StringBuilder(length);
+        boolean space = false;
+        for (int i = 0; i < length; i++) {
+            char c = sentence.charAt(i);
+            if (isWhitespace(c)) {
+                space = out.length() > 0;
+            } else {
+                if (space) {
+                    out.append(' ');
+                    space = false;
+                }
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * The same characters as \s in a regular expression, which are the ones the sentences are allowed to have.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * @return The amount of sentences that are cached right now
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d hits, %d misses, %d evictions, %d cached", hits(), misses(), evictions(), size());
+    }
+
+    /**
+     * A {@link LinkedHashMap} in access order, so its eldest entry is always the least recently used one.
+     */
+    private class Segment extends LinkedHashMap<String, Boolean> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,597 @@
+package truth;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A reduced ordered binary decision diagram (BDD) package. A node stands for a boolean function of the variables of
+ * this BDD: it tests one variable and goes to its high child if the variable is true and its low child if it is false,
+ * and the variables are always tested in the same order on the way down. No two nodes test the same variable with the
+ * same children (the unique table makes sure of that) and no node has two equal children, so every function has
+ * exactly one node. That is why {@link #equivalent(int, int)} only has to compare two ints, no matter how many
+ * variables the functions have, where checking every row of a {@link TruthTable} stops being possible at around 20
+ * variables.
+ *
+ * <p>Nodes are ints, {@link #FALSE} and {@link #TRUE} being the two constant functions. Operations are all built on
+ * {@link #ite(int, int, int)} (if-then-else), whose results are kept in a cache so the same sub problem is only worked
+ * out once.
+ *
+ * <p>Nodes are never freed while operations are running, so the node table grows until {@link #gc()} or
+ * {@link #reorder()} is called. Those keep only the nodes that can be reached from a node given to {@link #ref(int)}
+ * (and not given back to {@link #deref(int)} as many times), so ref every node that should still be usable after
+ * them. A node keeps its number and its function through {@link #reorder()}, which looks for a variable order that
+ * needs fewer nodes by sifting each variable through every level. A BDD is not safe to use from several threads at
+ * once.
+ */
+public final class Bdd {
+
+    public static final int FALSE = 0;
+    public static final int TRUE = 1;
+
+    private static final int CACHE_SIZE = 1 << 16;
+    private static final double MAX_GROWTH = 1.2; // how much bigger sifting lets the BDD get before turning around
+
+    // the node table, where var is the variable a node tests, and next links the nodes of one bucket of the unique
+    // table (or the free nodes)
+    private int[] var;
+    private int[] low;
+    private int[] high;
+    private int[] next;
+    private int[] refs; // how many times each node was given to ref
+    private int[] parents; // only kept up to date while reordering, where it also counts refs
+    private int size; // nodes in the table, including freed ones
+    private int free = -1; // the first freed node
+    private int nodeCount; // nodes that are not freed, not counting FALSE and TRUE
+    private boolean reordering;
+
+    // the unique table, with a hash table for every variable so the nodes of one variable can be found when sifting
+    private int[][] buckets = new int[0][];
+    private int[] bucketCounts = new int[0];
+
+    // the order, so level(v) = levels[v] and variable at level l = order[l]
+    private int[] levels = new int[0];
+    private int[] order = new int[0];
+    private int variableCount;
+    private int[] symbols = new int[0]; // the SymbolTable id of each variable
+    private final HashMap<Integer, Integer> variables = new HashMap<>(); // SymbolTable id to variable
+
+    // the ITE cache, where each result is stored in the one slot its arguments hash to
+    private final int[] cacheF = new int[CACHE_SIZE];
+    private final int[] cacheG = new int[CACHE_SIZE];
+    private final int[] cacheH = new int[CACHE_SIZE];
+    private final int[] cacheResult = new int[CACHE_SIZE];
+
+    public Bdd() {
+        var = new int[1024];
+        low = new int[1024];
+        high = new int[1024];
+        next = new int[1024];
+        refs = new int[1024];
+        var[FALSE] = var[TRUE] = Integer.MAX_VALUE;
+        size = 2;
+        clearCache();
+    }
+
+    /**
+     * Gives the variable with the name a place in the order below every variable that is already in it, if it does
+     * not have one yet.
+     * @param name The name of a variable
+     * @return The node that is true exactly when the variable is
+     */
+    public int variable(String name) {
+        return mk(variableOf(SymbolTable.id(name)), FALSE, TRUE);
+    }
+
+    private int variableOf(int symbol) {
+        Integer v = variables.get(symbol);
+        if (v != null) {
+            return v;
+        }
+        if (variableCount == levels.length) {
+            int length = Math.max(16, variableCount * 2);
+            levels = Arrays.copyOf(levels, length);
+            order = Arrays.copyOf(order, length);
+            symbols = Arrays.copyOf(symbols, length);
+            buckets = Arrays.copyOf(buckets, length);
+            bucketCounts = Arrays.copyOf(bucketCounts, length);
+        }
+        levels[variableCount] = variableCount;
+        order[variableCount] = variableCount;
+        symbols[variableCount] = symbol;
+        buckets[variableCount] = new int[16];
+        Arrays.fill(buckets[variableCount], -1);
+        variables.put(symbol, variableCount);
+        return variableCount++;
+    }
+
+    /**
+     * Makes the node for sentence. The parts of the sentence are each only compiled once, even if they are shared
+     * (see {@link SentenceFactory}).
+     * @param sentence Any sentence
+     * @return The node that has the same value as sentence for every truth assignment
+     */
+    public int compile(LogicalSentence sentence) {
+        SentenceDag dag = SentenceDag.of(sentence);
+        int[] nodes = new int[dag.size];
+        for (int i = 0; i < dag.size; i++) {
+            switch (dag.types[i]) {
+                case SIMPLE:
+                    nodes[i] = mk(variableOf(dag.ids[i]), FALSE, TRUE);
+                    break;
+                case NEGATION:
+                    nodes[i] = not(nodes[dag.first[i]]);
+                    break;
+                case CONJUNCTION:
+                    nodes[i] = and(nodes[dag.first[i]], nodes[dag.second[i]]);
+                    break;
+                case DISJUNCTION:
+                    nodes[i] = or(nodes[dag.first[i]], nodes[dag.second[i]]);
+                    break;
+                case IMPLICATION:
+                    nodes[i] = implies(nodes[dag.first[i]], nodes[dag.second[i]]);
+                    break;
+                case BICONDITIONAL:
+                    nodes[i] = iff(nodes[dag.first[i]], nodes[dag.second[i]]);
+                    break;
+                default:
+                    throw new RuntimeException("Type is not recognized");
+            }
+        }
+        return nodes[dag.size - 1];
+    }
+
+    /**
+     * @return The node for "if f then g else h", which every other operation is made out of
+     */
+    public int ite(int f, int g, int h) {
+        if (f == TRUE) {
+            return g;
+        }
+        if (f == FALSE) {
+            return h;
+        }
+        if (g == h) {
+            return g;
+        }
+        if (g == TRUE && h == FALSE) {
+            return f;
+        }
+
+        int slot = hash(f, g, h) & (CACHE_SIZE - 1);
+        if (cacheF[slot] == f && cacheG[slot] == g && cacheH[slot] == h) {
+            return cacheResult[slot];
+        }
+
+        // split on the variable that comes first out of the ones f, g and h test
+        int level = Math.min(level(f), Math.min(level(g), level(h)));
+        int v = order[level];
+        int r = mk(v, ite(lowOf(f, level), lowOf(g, level), lowOf(h, level)),
+                      ite(highOf(f, level), highOf(g, level), highOf(h, level)));
+
+        cacheF[slot] = f;
+        cacheG[slot] = g;
+        cacheH[slot] = h;
+        cacheResult[slot] = r;
+        return r;
+    }
+
+    public int not(int f) {
+        return ite(f, FALSE, TRUE);
+    }
+
+    public int and(int f, int g) {
+        return ite(f, g, FALSE);
+    }
+
+    public int or(int f, int g) {
+        return ite(f, TRUE, g);
+    }
+
+    public int implies(int f, int g) {
+        return ite(f, g, TRUE);
+    }
+
+    public int iff(int f, int g) {
+        return ite(f, g, not(g));
+    }
+
+    /**
+     * Since every function only has one node, this is just f == g.
+     * @return If f and g have the same value for every truth assignment
+     */
+    public boolean equivalent(int f, int g) {
+        return f == g;
+    }
+
+    /**
+     * @return If f is true for every truth assignment
+     */
+    public boolean tautology(int f) {
+        return f == TRUE;
+    }
+
+    /**
+     * @return If g is true for every truth assignment that makes f true
+     */
+    public boolean entails(int f, int g) {
+        return implies(f, g) == TRUE;
+    }
+
+    /**
+     * Follows f down to a constant. Will throw an {@link IllegalArgumentException} if assignment does not have a value
+     * for a variable that f tests.
+     * @return The value of f for assignment
+     */
+    public boolean getValue(int f, TruthAssignment assignment) {
+        while (f > TRUE) {
+            f = assignment.getValue(symbols[var[f]]) ? high[f] : low[f];
+        }
+        return f == TRUE;
+    }
+
+    /**
+     * Keeps f (and every node under it) from being freed by {@link #gc()} and {@link #reorder()}.
+     * @return f, so it can be used like ref(and(f, g))
+     */
+    public int ref(int f) {
+        check(f);
+        refs[f]++;
+        return f;
+    }
+
+    /**
+     * Takes back one call to {@link #ref(int)}.
+     */
+    public void deref(int f) {
+        check(f);
+        if (refs[f] == 0) {
+            throw new IllegalArgumentException(String.format("%d was not referenced", f));
+        }
+        refs[f]--;
+    }
+
+    private void check(int f) {
+        if (f < 0 || f >= size || (f > TRUE && var[f] == -1)) {
+            throw new IllegalArgumentException(String.format("%d is not a node", f));
+        }
+    }
+
+    /**
+     * @return The amount of nodes in the table, not counting {@link #FALSE} and {@link #TRUE}
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return The amount of nodes that f is made of, not counting {@link #FALSE} and {@link #TRUE}
+     */
+    public int nodeCount(int f) {
+        boolean[] seen = new boolean[size];
+        int count = 0;
+        int[] stack = new int[16];
+        int top = -1;
+        stack[++top] = f;
+        while (top >= 0) {
+            int node = stack[top--];
+            if (node <= TRUE || seen[node]) {
+                continue;
+            }
+            seen[node] = true;
+            count++;
+            if (top + 2 >= stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[++top] = low[node];
+            stack[++top] = high[node];
+        }
+        return count;
+    }
+
+    /**
+     * @return The names of the variables, from the one tested first to the one tested last
+     */
+    public String[] getOrder() {
+        String[] names = new String[variableCount];
+        for (int level = 0; level < variableCount; level++) {
+            names[level] = SymbolTable.name(symbols[order[level]]);
+        }
+        return names;
+    }
+
+    /**
+     * Frees every node that can not be reached from a referenced node (mark and sweep), so the table can reuse them.
+     */
+    public void gc() {
+        boolean[] marked = new boolean[size];
+        for (int node = 2; node < size; node++) {
+            if (refs[node] > 0) {
+                mark(node, marked);
+            }
+        }
+        for (int v = 0; v < variableCount; v++) {
+            int[] table = buckets[v];
+            for (int b = 0; b < table.length; b++) {
+                int previous = -1;
+                for (int node = table[b]; node != -1; ) {
+                    int following = next[node];
+                    if (marked[node]) {
+                        previous = node;
+                    } else {
+                        if (previous == -1) {
+                            table[b] = following;
+                        } else {
+                            next[previous] = following;
+                        }
+                        bucketCounts[v]--;
+                        release(node);
+                    }
+                    node = following;
+                }
+            }
+        }
+        clearCache();
+    }
+
+    private void mark(int node, boolean[] marked) {
+        // a path is at most as long as there are variables, so this does not recurse very deep
+        if (node <= TRUE || marked[node]) {
+            return;
+        }
+        marked[node] = true;
+        mark(low[node], marked);
+        mark(high[node], marked);
+    }
+
+    /**
+     * Looks for a better variable order by sifting: each variable, starting with the ones that have the most nodes,
+     * is moved one level at a time to the bottom and then to the top, and is left at the level where the BDD had the
+     * fewest nodes. A direction is given up on early once the BDD gets too much bigger than the best it has been. This
+     * calls {@link #gc()} first, and every node that is still there afterwards keeps its number and its function.
+     */
+    public void reorder() {
+        gc();
+        if (variableCount < 2) {
+            return;
+        }
+        reordering = true;
+        parents = new int[var.length]; // as long as the node table, which allocate() grows them both with
+        for (int node = 2; node < size; node++) {
+            if (var[node] != -1) {
+                parents[node] += refs[node];
+                parents[low[node]]++;
+                parents[high[node]]++;
+            }
+        }
+
+        Integer[] sifted = new Integer[variableCount];
+        for (int v = 0; v < variableCount; v++) {
+            sifted[v] = v;
+        }
+        Arrays.sort(sifted, (a, b) -> bucketCounts[b] - bucketCounts[a]);
+        for (int v : sifted) {
+            sift(v);
+        }
+
+        reordering = false;
+        parents = null;
+        clearCache();
+    }
+
+    private void sift(int v) {
+        int best = nodeCount;
+        int bestLevel = levels[v];
+        int limit = (int) (best * MAX_GROWTH) + 1;
+        while (levels[v] < variableCount - 1 && nodeCount <= limit) {
+            swap(levels[v]);
+            if (nodeCount < best) {
+                best = nodeCount;
+                bestLevel = levels[v];
+                limit = (int) (best * MAX_GROWTH) + 1;
+            }
+        }
+        while (levels[v] > 0 && (nodeCount <= limit || levels[v] > bestLevel)) {
+            swap(levels[v] - 1);
+            if (nodeCount < best) {
+                best = nodeCount;
+                bestLevel = levels[v];
+                limit = (int) (best * MAX_GROWTH) + 1;
+            }
+        }
+        while (levels[v] < bestLevel) {
+            swap(levels[v]);
+        }
+    }
+
+    /**
+     * Swaps the variables at level and level + 1. Every node x of the upper variable that has a child testing the
+     * lower variable y is rewritten in place to test y first, with new nodes for x under it, so nodes above the two
+     * levels (and the ones that were referenced) do not have to change.
+     */
+    private void swap(int level) {
+        int x = order[level];
+        int y = order[level + 1];
+        order[level] = y;
+        order[level + 1] = x;
+        levels[y] = level;
+        levels[x] = level + 1;
+
+        // take every node of x out of the unique table, then put back the ones that do not depend on y first, since
+        // one of the new x nodes might turn out to be one of them
+        int[] table = buckets[x];
+        int[] moved = new int[bucketCounts[x]];
+        int movedCount = 0;
+        int[] kept = new int[bucketCounts[x]];
+        int keptCount = 0;
+        for (int b = 0; b < table.length; b++) {
+            for (int node = table[b]; node != -1; node = next[node]) {
+                if (var[low[node]] == y || var[high[node]] == y) {
+                    moved[movedCount++] = node;
+                } else {
+                    kept[keptCount++] = node;
+                }
+            }
+        }
+        Arrays.fill(table, -1);
+        bucketCounts[x] = 0;
+        for (int i = 0; i < keptCount; i++) {
+            insert(x, kept[i]);
+        }
+
+        for (int i = 0; i < movedCount; i++) {
+            int f = moved[i];
+            int f0 = low[f];
+            int f1 = high[f];
+            int f00 = var[f0] == y ? low[f0] : f0;
+            int f01 = var[f0] == y ? high[f0] : f0;
+            int f10 = var[f1] == y ? low[f1] : f1;
+            int f11 = var[f1] == y ? high[f1] : f1;
+            // f = x ? (y ? f11 : f10) : (y ? f01 : f00) = y ? (x ? f11 : f01) : (x ? f10 : f00)
+            int newLow = mk(x, f00, f10);
+            int newHigh = mk(x, f01, f11);
+            parents[newLow]++;
+            parents[newHigh]++;
+            var[f] = y;
+            low[f] = newLow;
+            high[f] = newHigh;
+            insert(y, f);
+            dereference(f0);
+            dereference(f1);
+        }
+    }
+
+    /**
+     * Takes one parent away from node while reordering, and frees it if that was its last one.
+     */
+    private void dereference(int node) {
+        if (node <= TRUE || --parents[node] > 0) {
+            return;
+        }
+        remove(var[node], node);
+        int l = low[node];
+        int h = high[node];
+        release(node);
+        dereference(l);
+        dereference(h);
+    }
+
+    /**
+     * @return The node that tests v and goes to low or high, which is only made if it is not in the unique table yet
+     */
+    private int mk(int v, int low, int high) {
+        if (low == high) {
+            return low;
+        }
+        int[] table = buckets[v];
+        int b = hash(low, high, v) & (table.length - 1);
+        for (int node = table[b]; node != -1; node = next[node]) {
+            if (this.low[node] == low && this.high[node] == high) {
+                return node;
+            }
+        }
+
+        int node = allocate();
+        var[node] = v;
+        this.low[node] = low;
+        this.high[node] = high;
+        refs[node] = 0;
+        if (reordering) {
+            parents[node] = 0;
+            parents[low]++;
+            parents[high]++;
+        }
+        insert(v, node);
+        return node;
+    }
+
+    private int allocate() {
+        nodeCount++;
+        if (free != -1) {
+            int node = free;
+            free = next[node];
+            return node;
+        }
+        if (size == var.length) {
+            int length = size * 2;
+            var = Arrays.copyOf(var, length);
+            low = Arrays.copyOf(low, length);
+            high = Arrays.copyOf(high, length);
+            next = Arrays.copyOf(next, length);
+            refs = Arrays.copyOf(refs, length);
+            if (parents != null) {
+                parents = Arrays.copyOf(parents, length);
+            }
+        }
+        return size++;
+    }
+
+    private void release(int node) {
+        var[node] = -1;
+        next[node] = free;
+        free = node;
+        nodeCount--;
+    }
+
+    private void insert(int v, int node) {
+        if (bucketCounts[v] == buckets[v].length) {
+            rehash(v);
+        }
+        int[] table = buckets[v];
+        int b = hash(low[node], high[node], v) & (table.length - 1);
+        next[node] = table[b];
+        table[b] = node;
+        bucketCounts[v]++;
+    }
+
+    private void remove(int v, int node) {
+        int[] table = buckets[v];
+        int b = hash(low[node], high[node], v) & (table.length - 1);
+        if (table[b] == node) {
+            table[b] = next[node];
+        } else {
+            int previous = table[b];
+            while (next[previous] != node) {
+                previous = next[previous];
+            }
+            next[previous] = next[node];
+        }
+        bucketCounts[v]--;
+    }
+
+    private void rehash(int v) {
+        int[] old = buckets[v];
+        int[] table = new int[old.length * 2];
+        Arrays.fill(table, -1);
+        for (int b = 0; b < old.length; b++) {
+            for (int node = old[b]; node != -1; ) {
+                int following = next[node];
+                int slot = hash(low[node], high[node], v) & (table.length - 1);
+                next[node] = table[slot];
+                table[slot] = node;
+                node = following;
+            }
+        }
+        buckets[v] = table;
+    }
+
+    private int level(int node) {
+        return node <= TRUE ? Integer.MAX_VALUE : levels[var[node]];
+    }
+
+    private int lowOf(int node, int level) {
+        return level(node) == level ? low[node] : node;
+    }
+
+    private int highOf(int node, int level) {
+        return level(node) == level ? high[node] : node;
+    }
+
+    private void clearCache() {
+        Arrays.fill(cacheF, -1);
+    }
+
+    private static int hash(int a, int b, int c) {
+        int hash = a * 0x9E3779B1 + b * 0x85EBCA77 + c * 0xC2B2AE3D;
+        return hash ^ hash >>> 16;
+    }
+}
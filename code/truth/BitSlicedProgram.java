@@ -0,0 +1,177 @@
+package truth;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * A {@link LogicalSentence} turned into a list of instructions that work on 64 truth assignments at once. Every value is
+ * a long where bit k is the value for the k-th of those assignments, so each operator is a single bitwise operation no
+ * matter how many assignments there are.
+ *
+ * <p>There is one instruction for every operator in the sentence's {@link SentenceDag}, so a part that is shared is only
+ * worked out once per word. Each instruction reads its operands from numbered slots and writes its result to one. The
+ * first slots hold the variables, which are filled in once per word however many times each variable is used, and
+ * every other slot is reused as soon as the last instruction that reads it is done, so there are only about as many
+ * slots as there are values that are needed at the same time.
+ *
+ * <p>The variables are numbered in alphabetical order, and in row r of the truth table variable i has the value of bit
+ * i of r. Row r is bit r % 64 of word r / 64, so inside a word the first 6 variables follow the same pattern in every
+ * word (see {@link #LOW_MASKS}) and every other variable is either all true or all false for the whole word.
+ */
+final class BitSlicedProgram {
+
+    private static final int NOT = 0;
+    private static final int AND = 1;
+    private static final int OR = 2;
+    private static final int IMPLIES = 3;
+    private static final int IFF = 4;
+
+    private static final long[] LOW_MASKS = {
+            0xAAAAAAAAAAAAAAAAL, 0xCCCCCCCCCCCCCCCCL, 0xF0F0F0F0F0F0F0F0L,
+            0xFF00FF00FF00FF00L, 0xFFFF0000FFFF0000L, 0xFFFFFFFF00000000L
+    };
+
+    private final String[] variables;
+    // 4 ints per instruction: the operation, the slot it writes to, and the slots of its two operands
+    private final int[] code;
+    private final int result; // the slot the value of the whole sentence ends up in
+    private final int slotCount;
+
+    private BitSlicedProgram(String[] variables, int[] code, int result, int slotCount) {
+        this.variables = variables;
+        this.code = code;
+        this.result = result;
+        this.slotCount = slotCount;
+    }
+
+    /**
+     * Turns sentence into a program. The sentence is walked without recursion, so very deep sentences are fine, and
+     * each distinct part of it is only looked at once, so shared parts are fine too.
+     */
+    static BitSlicedProgram compile(LogicalSentence sentence) {
+        SentenceDag dag = SentenceDag.of(sentence);
+        TreeSet<String> names = new TreeSet<>();
+        int[] lastUses = new int[dag.size]; // the last entry that reads each entry
+        for (int i = 0; i < dag.size; i++) {
+            if (dag.types[i] == LogicalSentence.Type.SIMPLE) {
+                names.add(SymbolTable.name(dag.ids[i]));
+            }
+            if (dag.first[i] != -1) {
+                lastUses[dag.first[i]] = i;
+            }
+            if (dag.second[i] != -1) {
+                lastUses[dag.second[i]] = i;
+            }
+        }
+
+        String[] variables = names.toArray(new String[0]);
+        int[] code = new int[dag.size * 4];
+        int size = 0;
+        int[] slots = new int[dag.size]; // the slot each entry was written to
+        int[] free = new int[dag.size];
+        int freeCount = 0;
+        int slotCount = variables.length;
+        for (int i = 0; i < dag.size; i++) {
+            int operation;
+            switch (dag.types[i]) {
+                case SIMPLE:
+                    slots[i] = Arrays.binarySearch(variables, SymbolTable.name(dag.ids[i]));
+                    continue;
+                case NEGATION:
+                    operation = NOT;
+                    break;
+                case CONJUNCTION:
+                    operation = AND;
+                    break;
+                case DISJUNCTION:
+                    operation = OR;
+                    break;
+                case IMPLICATION:
+                    operation = IMPLIES;
+                    break;
+                case BICONDITIONAL:
+                    operation = IFF;
+                    break;
+                default:
+                    throw new RuntimeException("Type is not recognized");
+            }
+            int first = dag.first[i];
+            int second = dag.second[i];
+            code[size + 2] = slots[first];
+            code[size + 3] = second == -1 ? 0 : slots[second];
+
+            // operands that are not read again give their slots back first, so the result can go in one of them
+            if (dag.types[first] != LogicalSentence.Type.SIMPLE && lastUses[first] == i) {
+                free[freeCount++] = slots[first];
+            }
+            if (second != -1 && second != first && dag.types[second] != LogicalSentence.Type.SIMPLE
+                    && lastUses[second] == i) {
+                free[freeCount++] = slots[second];
+            }
+            slots[i] = freeCount > 0 ? free[--freeCount] : slotCount++;
+            code[size] = operation;
+            code[size + 1] = slots[i];
+            size += 4;
+        }
+        return new BitSlicedProgram(variables, Arrays.copyOf(code, size), slots[dag.size - 1], slotCount);
+    }
+
+    /**
+     * @return The names of the variables, in the order they are numbered in
+     */
+    String[] variables() {
+        return variables.clone();
+    }
+
+    int variableCount() {
+        return variables.length;
+    }
+
+    /**
+     * @return Slots for {@link #evaluate(long, long[])}, each thread needs its own
+     */
+    long[] newSlots() {
+        long[] slots = new long[slotCount];
+        // the first 6 variables are the same in every word
+        System.arraycopy(LOW_MASKS, 0, slots, 0, Math.min(6, variables.length));
+        return slots;
+    }
+
+    /**
+     * Evaluates the sentence for rows word * 64 to word * 64 + 63 of the truth table.
+     * @param word The word of the truth table to evaluate
+     * @param slots Slots made by {@link #newSlots()}
+     * @return Bit k is the value of the sentence in row word * 64 + k
+     */
+    long evaluate(long word, long[] slots) {
+        for (int variable = 6; variable < variables.length; variable++) {
+            slots[variable] = -((word >>> (variable - 6)) & 1);
+        }
+        int[] code = this.code;
+        for (int i = 0; i < code.length; i += 4) {
+            long a = slots[code[i + 2]];
+            long value;
+            switch (code[i]) {
+                case NOT:
+                    value = ~a;
+                    break;
+                case AND:
+                    value = a & slots[code[i + 3]];
+                    break;
+                case OR:
+                    value = a | slots[code[i + 3]];
+                    break;
+                case IMPLIES:
+                    value = ~a | slots[code[i + 3]];
+                    break;
+                case IFF:
+                    value = ~(a ^ slots[code[i + 3]]);
+                    break;
+                default:
+                    throw new RuntimeException("Instruction is not recognized");
+            }
+            slots[code[i + 1]] = value;
+        }
+        return slots[result];
+    }
+}
@@ -0,0 +1,225 @@
+package truth;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * A {@link LogicalSentence} in conjunctive normal form, made with the Tseitin transformation. The parts of the sentence
+ * that are already conjunctions of disjunctions become clauses as they are. Every other operator gets a new variable
+ * that has to be equal to its result, so the CNF only grows linearly with the sentence (multiplying the sentence out
+ * could make it grow exponentially). The CNF is not equivalent to the sentence, but it is satisfiable exactly when the
+ * sentence is, and the variables of the sentence have the same values in both.
+ *
+ * <p>Variables are numbered from 0, and a literal is a variable times 2, plus 1 if it is negated. So the negation of
+ * a literal is always literal ^ 1.
+ */
+final class Cnf {
+
+    final List<int[]> clauses = new ArrayList<>();
+    int variableCount;
+    int[] symbols = new int[16]; // the SymbolTable id of each variable from the sentence, -1 for the added variables
+    private final HashMap<Integer, Integer> inputs = new HashMap<>(); // SymbolTable id to variable
+    private final IdentityHashMap<LogicalSentence, Integer> literals = new IdentityHashMap<>();
+
+    private Cnf() {
+    }
+
+    static Cnf of(LogicalSentence sentence) {
+        Cnf cnf = new Cnf();
+        // the sentence is split into the parts that all have to be true, each with whether it is negated. A part that
+        // is shared only has to be split once for each way it is negated
+        IdentityHashMap<LogicalSentence, Integer> seen = new IdentityHashMap<>();
+        ArrayDeque<LogicalSentence> facts = new ArrayDeque<>();
+        ArrayDeque<Boolean> positives = new ArrayDeque<>();
+        facts.push(sentence);
+        positives.push(true);
+        while (!facts.isEmpty()) {
+            LogicalSentence node = facts.pop();
+            boolean positive = positives.pop();
+            if (!firstVisit(seen, node, positive)) {
+                continue;
+            }
+            LogicalSentence.Type type = node.getType();
+            if (type == LogicalSentence.Type.NEGATION) {
+                facts.push(node.getSubSentence(0));
+                positives.push(!positive);
+            } else if (type == LogicalSentence.Type.CONJUNCTION && positive
+                    || type == LogicalSentence.Type.DISJUNCTION && !positive) {
+                for (int i = 0; i < 2; i++) {
+                    facts.push(node.getSubSentence(i));
+                    positives.push(positive);
+                }
+            } else if (type == LogicalSentence.Type.IMPLICATION && !positive) {
+                facts.push(node.getSubSentence(0));
+                positives.push(true);
+                facts.push(node.getSubSentence(1));
+                positives.push(false);
+            } else {
+                cnf.clauses.add(cnf.clause(node, positive));
+            }
+        }
+        return cnf;
+    }
+
+    /**
+     * Remembers that node was reached with the given polarity.
+     * @return If it had not been reached with that polarity before
+     */
+    private static boolean firstVisit(IdentityHashMap<LogicalSentence, Integer> seen, LogicalSentence node,
+                                      boolean positive) {
+        int bit = positive ? 1 : 2;
+        Integer before = seen.get(node);
+        if (before != null && (before & bit) != 0) {
+            return false;
+        }
+        seen.put(node, before == null ? bit : before | bit);
+        return true;
+    }
+
+    /**
+     * Turns a part of the sentence that has to be true (or false if positive is false) into a clause. Disjunctions
+     * are taken apart into the literals of the clause, so a sentence that is already in CNF gets no new variables.
+     */
+    private int[] clause(LogicalSentence sentence, boolean positive) {
+        int[] clause = new int[4];
+        int size = 0;
+        IdentityHashMap<LogicalSentence, Integer> seen = new IdentityHashMap<>();
+        ArrayDeque<LogicalSentence> parts = new ArrayDeque<>();
+        ArrayDeque<Boolean> positives = new ArrayDeque<>();
+        parts.push(sentence);
+        positives.push(positive);
+        while (!parts.isEmpty()) {
+            LogicalSentence node = parts.pop();
+            positive = positives.pop();
+            if (!firstVisit(seen, node, positive)) {
+                continue; // the same literal again would not change the clause
+            }
+            LogicalSentence.Type type = node.getType();
+            if (type == LogicalSentence.Type.NEGATION) {
+                parts.push(node.getSubSentence(0));
+                positives.push(!positive);
+            } else if (type == LogicalSentence.Type.DISJUNCTION && positive
+                    || type == LogicalSentence.Type.CONJUNCTION && !positive) {
+                for (int i = 0; i < 2; i++) {
+                    parts.push(node.getSubSentence(i));
+                    positives.push(positive);
+                }
+            } else if (type == LogicalSentence.Type.IMPLICATION && positive) {
+                parts.push(node.getSubSentence(0));
+                positives.push(false);
+                parts.push(node.getSubSentence(1));
+                positives.push(true);
+            } else {
+                if (size == clause.length) {
+                    clause = Arrays.copyOf(clause, size * 2);
+                }
+                clause[size++] = literal(node) ^ (positive ? 0 : 1);
+            }
+        }
+        return Arrays.copyOf(clause, size);
+    }
+
+    /**
+     * Gives sentence a literal that is true exactly when it is, adding the Tseitin clauses for every operator in it
+     * that does not have a literal yet. Every part gets its literal before the parts that use it, and a part that
+     * already has one is not walked into again, so a shared part is only looked at once however many times it is used.
+     */
+    private int literal(LogicalSentence sentence) {
+        ArrayDeque<LogicalSentence> walk = new ArrayDeque<>();
+        walk.push(sentence);
+        while (!walk.isEmpty()) {
+            LogicalSentence node = walk.peek();
+            if (literals.containsKey(node)) {
+                walk.pop();
+                continue;
+            }
+            if (node.getType() == LogicalSentence.Type.SIMPLE) {
+                Integer variable = inputs.get(node.getId());
+                if (variable == null) {
+                    variable = newVariable(node.getId());
+                    inputs.put(node.getId(), variable);
+                }
+                literals.put(node, variable << 1);
+                walk.pop();
+                continue;
+            }
+
+            LogicalSentence first = node.getSubSentence(0);
+            LogicalSentence second = node.getSubSentence(1);
+            Integer a = literals.get(first);
+            Integer b = second == null ? null : literals.get(second);
+            if (a == null || (second != null && b == null)) {
+                // the sub sentences need their literals first, this node is looked at again after them
+                if (second != null && b == null) {
+                    walk.push(second);
+                }
+                if (a == null) {
+                    walk.push(first);
+                }
+                continue;
+            }
+            walk.pop();
+            if (node.getType() == LogicalSentence.Type.NEGATION) {
+                literals.put(node, a ^ 1); // a negation does not need a variable of its own
+                continue;
+            }
+
+            int x = newVariable(-1) << 1;
+            switch (node.getType()) {
+                case CONJUNCTION:
+                    and(x, a, b);
+                    break;
+                case DISJUNCTION:
+                    or(x, a, b);
+                    break;
+                case IMPLICATION:
+                    or(x, a ^ 1, b);
+                    break;
+                case BICONDITIONAL:
+                    add(x ^ 1, a ^ 1, b);
+                    add(x ^ 1, a, b ^ 1);
+                    add(x, a, b);
+                    add(x, a ^ 1, b ^ 1);
+                    break;
+                default:
+                    throw new RuntimeException("Type is not recognized");
+            }
+            literals.put(node, x); // so a part that is used more than once only gets one variable
+        }
+        return literals.get(sentence);
+    }
+
+    private int newVariable(int symbol) {
+        if (variableCount == symbols.length) {
+            symbols = Arrays.copyOf(symbols, variableCount * 2);
+        }
+        symbols[variableCount] = symbol;
+        return variableCount++;
+    }
+
+    /**
+     * Adds the clauses for x = a & b.
+     */
+    private void and(int x, int a, int b) {
+        add(x ^ 1, a);
+        add(x ^ 1, b);
+        add(x, a ^ 1, b ^ 1);
+    }
+
+    /**
+     * Adds the clauses for x = a | b.
+     */
+    private void or(int x, int a, int b) {
+        add(x ^ 1, a, b);
+        add(x, a ^ 1);
+        add(x, b ^ 1);
+    }
+
+    private void add(int... literals) {
+        clauses.add(literals);
+    }
+}
@@ -0,0 +1,44 @@
+package truth;
+
+/**
+ * Evaluates a {@link LogicalSentence} by working out the value of each distinct part of it once per truth assignment,
+ * in an order where the sub sentences of a part always come before it. For a sentence made by a
+ * {@link SentenceFactory} (or any sentence that reuses the same objects) this takes time proportional to the amount of
+ * distinct parts, where {@link LogicalSentence#getValue(TruthAssignment)} evaluates a shared part once for every place
+ * it is used. A sentence that is not shared at all is evaluated just as fast either way.
+ *
+ * <p>The values of the parts are kept in one array that is reused for every assignment, so an evaluator should only be
+ * used by one thread at a time.
+ */
+public class DagEvaluator {
+
+    private final SentenceDag dag;
+    private final boolean[] values;
+
+    /**
+     * @param sentence The sentence to evaluate, which may share parts
+     */
+    public DagEvaluator(LogicalSentence sentence) {
+        this.dag = SentenceDag.of(sentence);
+        this.values = new boolean[dag.size];
+    }
+
+    /**
+     * @return The amount of distinct parts in the sentence
+     */
+    public int size() {
+        return dag.size;
+    }
+
+    /**
+     * Returns the same value as {@link LogicalSentence#getValue(TruthAssignment)} would.
+     * @param assignment The truth assignment
+     * @return The value of the sentence
+     */
+    public boolean getValue(TruthAssignment assignment) {
+        for (int i = 0; i < dag.size; i++) {
+            values[i] = dag.evaluate(i, values, assignment);
+        }
+        return values[dag.size - 1];
+    }
+}
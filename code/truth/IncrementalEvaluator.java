@@ -0,0 +1,160 @@
+package truth;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Keeps the value of a {@link LogicalSentence} up to date while the values of its variables change one at a time. The
+ * value of every distinct part of the sentence is kept, along with the parts that use it, so changing a variable
+ * only has to work out the parts above that variable again. Going up stops at every part whose value stays the same,
+ * so a change that does not make it all the way up costs even less.
+ *
+ * <p>The parts are worked out again in the same order as {@link DagEvaluator} goes through them, lowest first, so a
+ * part that is reached from several changed sub sentences is still only worked out once per change. Variables have
+ * to be changed with {@link #setValue(String, boolean)} and not on the assignment itself, since the evaluator would
+ * not know about it. An evaluator is not safe to use from several threads at once.
+ */
+public class IncrementalEvaluator {
+
+    private final SentenceDag dag;
+    private final TruthAssignment assignment;
+    private final boolean[] values;
+    // the entries that use entry i are parents[parentStarts[i]] to parents[parentStarts[i + 1] - 1]
+    private final int[] parentStarts;
+    private final int[] parents;
+    private final HashMap<Integer, int[]> variables = new HashMap<>(); // SymbolTable id to the entries of that variable
+
+    // the entries that have to be worked out again, as a heap so the lowest one always comes first
+    private final int[] heap;
+    private final boolean[] queued;
+    private int heapSize;
+    int updated; // how many entries the last change worked out again, to make sure it only goes up the changed path
+
+    /**
+     * Works out the value of every part of sentence for assignment, which has to have a value for every variable in
+     * the sentence.
+     * @param sentence The sentence to evaluate, which may share parts
+     * @param assignment The assignment, which is changed by {@link #setValue(String, boolean)}
+     */
+    public IncrementalEvaluator(LogicalSentence sentence, TruthAssignment assignment) {
+        this.dag = SentenceDag.of(sentence);
+        this.assignment = assignment;
+        this.values = new boolean[dag.size];
+        this.heap = new int[dag.size];
+        this.queued = new boolean[dag.size];
+
+        // count the parents of every entry first, so they can all be put in one array
+        this.parentStarts = new int[dag.size + 1];
+        for (int i = 0; i < dag.size; i++) {
+            if (dag.first[i] != -1) {
+                parentStarts[dag.first[i] + 1]++;
+            }
+            if (dag.second[i] != -1) {
+                parentStarts[dag.second[i] + 1]++;
+            }
+        }
+        for (int i = 0; i < dag.size; i++) {
+            parentStarts[i + 1] += parentStarts[i];
+        }
+        this.parents = new int[parentStarts[dag.size]];
+        int[] filled = new int[dag.size];
+        for (int i = 0; i < dag.size; i++) {
+            if (dag.first[i] != -1) {
+                parents[parentStarts[dag.first[i]] + filled[dag.first[i]]++] = i;
+            }
+            if (dag.second[i] != -1) {
+                parents[parentStarts[dag.second[i]] + filled[dag.second[i]]++] = i;
+            }
+        }
+
+        HashMap<Integer, ArrayList<Integer>> entries = new HashMap<>();
+        for (int i = 0; i < dag.size; i++) {
+            if (dag.types[i] == LogicalSentence.Type.SIMPLE) {
+                entries.computeIfAbsent(dag.ids[i], id -> new ArrayList<>()).add(i);
+            }
+        }
+        entries.forEach((id, list) -> variables.put(id, list.stream().mapToInt(Integer::intValue).toArray()));
+
+        for (int i = 0; i < dag.size; i++) {
+            values[i] = dag.evaluate(i, values, assignment);
+        }
+    }
+
+    /**
+     * @return The value of the sentence for the assignment as it is now
+     */
+    public boolean getValue() {
+        return values[dag.size - 1];
+    }
+
+    /**
+     * Sets the value of name in the assignment and updates the value of the sentence. If name does not exist in the
+     * assignment, an {@link IllegalArgumentException} will be thrown, like {@link TruthAssignment#setValue(String,
+     * boolean)} does.
+     * @param name The name of the variable to change
+     * @param value The new value that name should have
+     * @return The value of the sentence afterwards
+     */
+    public boolean setValue(String name, boolean value) {
+        boolean old = assignment.getValue(name);
+        assignment.setValue(name, value);
+        updated = 0;
+        int[] entries = variables.get(SymbolTable.find(name));
+        if (old == value || entries == null) {
+            return getValue();
+        }
+
+        for (int entry : entries) {
+            push(entry);
+        }
+        while (heapSize > 0) {
+            int i = pop();
+            updated++;
+            boolean result = dag.evaluate(i, values, assignment);
+            if (result == values[i]) {
+                continue; // nothing above i can change because of it
+            }
+            values[i] = result;
+            for (int p = parentStarts[i]; p < parentStarts[i + 1]; p++) {
+                push(parents[p]);
+            }
+        }
+        return getValue();
+    }
+
+    private void push(int entry) {
+        if (queued[entry]) {
+            return;
+        }
+        queued[entry] = true;
+        int i = heapSize++;
+        while (i > 0 && heap[(i - 1) >>> 1] > entry) {
+            heap[i] = heap[(i - 1) >>> 1];
+            i = (i - 1) >>> 1;
+        }
+        heap[i] = entry;
+    }
+
+    private int pop() {
+        int top = heap[0];
+        queued[top] = false;
+        int last = heap[--heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= last) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+}
@@ -1,13 +1,16 @@
 package truth;
 
+import java.util.function.Predicate;
+
 public class LogicalSentence {
 
-    private enum Type {
+    enum Type {
         SIMPLE, NEGATION, CONJUNCTION, DISJUNCTION, IMPLICATION, BICONDITIONAL
     }
 
     private Type type;
     private String value;
+    private int id; // the id of value in the SymbolTable, so it does not have to be looked up again
     private LogicalSentence[] subSentences;
 
     /**
@@ -16,6 +19,7 @@ public class LogicalSentence {
     public LogicalSentence(String value) {
         this.type = Type.SIMPLE;
         this.value = value;
+        this.id = SymbolTable.id(value);
         this.subSentences = null;
     }
 
@@ -36,28 +40,55 @@ public class LogicalSentence {
         this.subSentences[0] = s1;
         this.subSentences[1] = s2;
         this.value = null;
+        this.type = typeOf(type);
+    }
 
-        switch (type) {
+    /**
+     * @param symbol Can only be "~", "|", "&", "=>", or "<=>".
+     * @return The type of complex sentence the symbol stands for
+     */
+    static Type typeOf(String symbol) {
+        switch (symbol) {
             case "~":
-                this.type = Type.NEGATION;
-                break;
+                return Type.NEGATION;
             case "|":
-                this.type = Type.DISJUNCTION;
-                break;
+                return Type.DISJUNCTION;
             case "&":
-                this.type = Type.CONJUNCTION;
-                break;
+                return Type.CONJUNCTION;
             case "=>":
-                this.type = Type.IMPLICATION;
-                break;
+                return Type.IMPLICATION;
             case "<=>":
-                this.type = Type.BICONDITIONAL;
-                break;
+                return Type.BICONDITIONAL;
             default:
                 throw new IllegalArgumentException("Type not valid");
         }
     }
 
+    Type getType() {
+        return this.type;
+    }
+
+    /**
+     * @return The name of the variable if this is a simple sentence, or null if it is not
+     */
+    String getVariable() {
+        return this.value;
+    }
+
+    /**
+     * @return The id of the variable in the {@link SymbolTable} if this is a simple sentence
+     */
+    int getId() {
+        return this.id;
+    }
+
+    /**
+     * @return The first (or only) sub sentence for index 0 and the second for index 1, or null if there is none
+     */
+    LogicalSentence getSubSentence(int index) {
+        return this.subSentences == null ? null : this.subSentences[index];
+    }
+
     /**
      * Returns the value of this logical sentence with each of the values given in a truth assignment. It is assumed
      * that the truth assigment contains all of the data needed for this LogicalSentence.
@@ -67,7 +98,7 @@ public class LogicalSentence {
     public boolean getValue(TruthAssignment assignment) {
         switch (this.type) {
             case SIMPLE:
-                return assignment.getValue(this.value);
+                return assignment.getValue(this.id);
             case NEGATION:
                 return !this.subSentences[0].getValue(assignment);
             case DISJUNCTION:
@@ -83,6 +114,47 @@ public class LogicalSentence {
         }
     }
 
+    /**
+     * Turns this logical sentence into a {@link Predicate} that gives the same result as
+     * {@link #getValue(TruthAssignment)}. Each part of the sentence becomes a lambda that already knows what kind of
+     * part it is and holds the lambdas of its sub sentences, so there is no switch on the type when it is evaluated.
+     * Compiling takes about as long as evaluating the sentence once, so it is worth it when the same sentence is going
+     * to be evaluated for many truth assignments.
+     * @return A predicate that evaluates this sentence
+     */
+    public Predicate<TruthAssignment> compile() {
+        switch (this.type) {
+            case SIMPLE:
+                int id = this.id;
+                return assignment -> assignment.getValue(id);
+            case NEGATION:
+                if (this.subSentences[0].type == Type.SIMPLE) {
+                    // negated variables are very common, so they get one lambda instead of two
+                    int negated = this.subSentences[0].id;
+                    return assignment -> !assignment.getValue(negated);
+                }
+                Predicate<TruthAssignment> sentence = this.subSentences[0].compile();
+                return assignment -> !sentence.test(assignment);
+            default:
+                break;
+        }
+
+        Predicate<TruthAssignment> left = this.subSentences[0].compile();
+        Predicate<TruthAssignment> right = this.subSentences[1].compile();
+        switch (this.type) {
+            case DISJUNCTION:
+                return assignment -> left.test(assignment) || right.test(assignment);
+            case CONJUNCTION:
+                return assignment -> left.test(assignment) && right.test(assignment);
+            case IMPLICATION:
+                return assignment -> !left.test(assignment) || right.test(assignment);
+            case BICONDITIONAL:
+                return assignment -> left.test(assignment) == right.test(assignment);
+            default:
+                throw new RuntimeException("Type is not recognized");
+        }
+    }
+
     @Override
     public String toString() {
         switch (this.type) {
@@ -0,0 +1,188 @@
+package truth;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongConsumer;
+
+/**
+ * Goes through every row of the truth table of a {@link LogicalSentence} on the threads of a {@link ForkJoinPool},
+ * without ever storing the whole table. The rows are numbered the same way as in {@link TruthTable}, so the rows that
+ * start with the same high bits (the same values for the last variables) are next to each other. The table is split
+ * into blocks of {@link #BLOCK_ROWS} such rows, and each block is evaluated 64 rows at a time (see
+ * {@link BitSlicedProgram}) by one worker with its own slots.
+ *
+ * <p>Since the row numbers only need a long, there can be up to {@link #MAX_VARIABLES} variables, although going
+ * through 2^62 rows would take a very long time.
+ */
+public class ParallelEnumerator {
+
+    /**
+     * The most variables a sentence can have.
+     */
+    public static final int MAX_VARIABLES = 62;
+
+    /**
+     * The amount of rows in a block, the part of the table one worker evaluates at a time.
+     */
+    static final int BLOCK_ROWS = 1 << 16;
+
+    private static final int BLOCK_WORDS = BLOCK_ROWS >>> 6;
+
+    private final BitSlicedProgram program;
+    private final ForkJoinPool pool;
+    private final String[] variables;
+    private final long rows;
+    private final long words;
+    private final long blocks;
+
+    /**
+     * Does the same thing as {@link #ParallelEnumerator(LogicalSentence, ForkJoinPool)} on the common pool.
+     */
+    public ParallelEnumerator(LogicalSentence sentence) {
+        this(sentence, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Will throw {@link IllegalArgumentException} if the sentence has more than {@link #MAX_VARIABLES} variables.
+     * @param sentence The sentence to go through the truth table of
+     * @param pool The pool the blocks are evaluated on
+     */
+    public ParallelEnumerator(LogicalSentence sentence, ForkJoinPool pool) {
+        this.program = BitSlicedProgram.compile(sentence);
+        if (program.variableCount() > MAX_VARIABLES) {
+            throw new IllegalArgumentException(String.format("A sentence can have at most %d variables, not %d",
+                                                             MAX_VARIABLES, program.variableCount()));
+        }
+        this.pool = pool;
+        this.variables = program.variables();
+        this.rows = 1L << variables.length;
+        this.words = (rows + 63) >>> 6;
+        this.blocks = (words + BLOCK_WORDS - 1) / BLOCK_WORDS;
+    }
+
+    /**
+     * @return The names of the variables, in the order their bits are in the row numbers
+     */
+    public String[] getVariables() {
+        return variables.clone();
+    }
+
+    /**
+     * @return The amount of rows, which is 2^n for n variables
+     */
+    public long rows() {
+        return rows;
+    }
+
+    /**
+     * @param row The row, see {@link TruthTable}
+     * @return The values the variables have in row
+     */
+    public TruthAssignment getAssignment(long row) {
+        if (row < 0 || row >= rows) {
+            throw new ArrayIndexOutOfBoundsException(String.format("Row %d is out of bounds for %d rows", row, rows));
+        }
+        boolean[] values = new boolean[variables.length];
+        for (int i = 0; i < variables.length; i++) {
+            values[i] = (row >>> i & 1) == 1;
+        }
+        return new TruthAssignment(variables, values);
+    }
+
+    /**
+     * Counts the rows in which the sentence is true. The table is split in half (by the highest bit of the row
+     * numbers) until the parts are single blocks, and the counts of the parts are added back up.
+     * @return The same thing as {@link TruthTable#countTrue()}
+     */
+    public long countTrue() {
+        return pool.invoke(new CountTask(0, words));
+    }
+
+    /**
+     * Gives sink every row in which the sentence is true, from the lowest row to the highest. The blocks are evaluated
+     * in parallel, a few per thread ahead of the one being given to sink, so the memory used stays the same no matter
+     * how big the table is. Sink is only called from the thread that called this method, so it does not have to be
+     * safe to use from several threads. The rows can be turned into assignments with {@link #getAssignment(long)}.
+     * @param sink What the true rows are given to
+     */
+    public void forEachTrue(LongConsumer sink) {
+        int ahead = Math.max(2, pool.getParallelism() * 4);
+        ArrayDeque<ForkJoinTask<long[]>> pending = new ArrayDeque<>();
+        long submitted = 0;
+        for (long block = 0; block < blocks; block++) {
+            while (submitted < blocks && pending.size() < ahead) {
+                pending.add(pool.submit(new BlockTask(submitted++)));
+            }
+            long[] values = pending.poll().join();
+            long first = block * BLOCK_ROWS;
+            for (int w = 0; w < values.length; w++) {
+                for (long bits = values[w]; bits != 0; bits &= bits - 1) {
+                    sink.accept(first + ((long) w << 6) + Long.numberOfTrailingZeros(bits));
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluates words from to to - 1 of the table with its own slots.
+     */
+    private long[] evaluate(long from, long to) {
+        long[] slots = program.newSlots();
+        long[] values = new long[(int) (to - from)];
+        for (long w = from; w < to; w++) {
+            values[(int) (w - from)] = program.evaluate(w, slots);
+        }
+        if (rows < 64) {
+            // with less than 6 variables, the bits past the last row are not part of the table
+            values[0] &= (1L << rows) - 1;
+        }
+        return values;
+    }
+
+    private class CountTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+
+        CountTask(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= BLOCK_WORDS) {
+                long count = 0;
+                for (long word : evaluate(from, to)) {
+                    count += Long.bitCount(word);
+                }
+                return count;
+            }
+            // split on a block boundary, so every leaf is a whole block
+            long middle = from + (to - from + BLOCK_WORDS - 1) / BLOCK_WORDS / 2 * BLOCK_WORDS;
+            CountTask high = new CountTask(middle, to);
+            high.fork();
+            long low = new CountTask(from, middle).compute();
+            return low + high.join();
+        }
+    }
+
+    private class BlockTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final long block;
+
+        BlockTask(long block) {
+            this.block = block;
+        }
+
+        @Override
+        protected long[] compute() {
+            long from = block * BLOCK_WORDS;
+            return evaluate(from, Math.min(words, from + BLOCK_WORDS));
+        }
+    }
+}
@@ -0,0 +1,583 @@
+package truth;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Finds out if a {@link LogicalSentence} can be true, without going through every truth assignment. The sentence is
+ * turned into a {@link Cnf}, which is then solved with conflict driven clause learning:
+ * <ul>
+ *     <li>Every clause watches two of its literals, and is only looked at when one of those becomes false. Nothing has
+ *     to be undone for the watches when backtracking.</li>
+ *     <li>When a clause becomes false, the reason for it is followed back to the first unique implication point, and
+ *     the clause that comes out of that is learned so the same conflict can never happen again.</li>
+ *     <li>The next variable to branch on is the one that was in the most recent conflicts (VSIDS), and it gets the
+ *     value it had the last time it was assigned.</li>
+ *     <li>The search starts over after a number of conflicts that follows the Luby sequence, keeping what was
+ *     learned.</li>
+ *     <li>Once there are too many learned clauses, the half that was used in the fewest recent conflicts is thrown
+ *     away, so propagation does not keep getting slower.</li>
+ * </ul>
+ */
+public final class SatSolver {
+
+    private static final int RESTART_CONFLICTS = 100; // conflicts before a restart, times the Luby sequence
+    private static final double ACTIVITY_DECAY = 0.95;
+    private static final double CLAUSE_DECAY = 0.999;
+
+    private final Cnf cnf;
+    private final ArrayList<int[]> clauses = new ArrayList<>();
+    private int firstLearned; // the clauses from this index on were learned
+    private double[] clauseActivities = new double[16];
+    private double clauseIncrement = 1;
+    private int learnedCount;
+    private double maxLearned;
+    // the clauses watching each literal, each followed by a literal of the clause (its blocker) that lets the clause be
+    // skipped without looking at it when that literal is true
+    private int[][] watches;
+    private int[] watchCounts;
+
+    private final byte[] values; // of each variable, 1 for true, -1 for false and 0 if it has no value yet
+    private final int[] levels; // the decision level each variable was assigned at
+    private final int[] reasons; // the clause that made each variable get its value, -1 if it was a decision
+    private final boolean[] phases; // the value each variable had the last time it was assigned
+    private final boolean[] seen;
+
+    private final int[] trail; // the literals that are true, in the order they became true
+    private int trailSize;
+    private int propagated; // the literals of the trail before this have been propagated
+    private final int[] levelStarts; // where each decision level starts on the trail
+    private int level;
+
+    private final double[] activities;
+    private double increment = 1;
+    private final int[] heap; // the variables, as a max heap on activity
+    private final int[] heapIndexes; // where each variable is in the heap, or -1 if it is not in it
+    private int heapSize;
+
+    private int[] learned = new int[16]; // the clause being learned
+    private int backtrackLevel;
+
+    private SatSolver(Cnf cnf) {
+        this.cnf = cnf;
+        int count = cnf.variableCount;
+        watches = new int[count * 2][];
+        watchCounts = new int[count * 2];
+        values = new byte[count];
+        levels = new int[count];
+        reasons = new int[count];
+        phases = new boolean[count];
+        seen = new boolean[count];
+        trail = new int[count];
+        levelStarts = new int[count + 1];
+        activities = new double[count];
+        heap = new int[count];
+        heapIndexes = new int[count];
+        for (int v = 0; v < count; v++) {
+            heap[v] = v;
+            heapIndexes[v] = v;
+        }
+        heapSize = count;
+    }
+
+    /**
+     * Finds a truth assignment for which sentence is true.
+     * @param sentence The sentence to solve
+     * @return A truth assignment with a value for every variable in sentence that makes it true, or null if there is
+     * none
+     */
+    public static TruthAssignment solve(LogicalSentence sentence) {
+        SatSolver solver = new SatSolver(Cnf.of(sentence));
+        if (!solver.solve()) {
+            return null;
+        }
+
+        ArrayList<String> names = new ArrayList<>();
+        ArrayList<Boolean> values = new ArrayList<>();
+        for (int v = 0; v < solver.cnf.variableCount; v++) {
+            if (solver.cnf.symbols[v] != -1) {
+                names.add(SymbolTable.name(solver.cnf.symbols[v]));
+                values.add(solver.values[v] == 1);
+            }
+        }
+        boolean[] array = new boolean[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return new TruthAssignment(names.toArray(new String[0]), array);
+    }
+
+    /**
+     * @return If there is a truth assignment for which sentence is true
+     */
+    public static boolean satisfiable(LogicalSentence sentence) {
+        return new SatSolver(Cnf.of(sentence)).solve();
+    }
+
+    private boolean solve() {
+        ArrayList<Integer> units = new ArrayList<>();
+        for (int[] clause : cnf.clauses) {
+            int[] normal = normalize(clause);
+            if (normal == null) {
+                continue;
+            }
+            if (normal.length == 1) {
+                units.add(normal[0]);
+            } else {
+                addClause(normal);
+            }
+        }
+        for (int unit : units) {
+            if (value(unit) == -1) {
+                return false;
+            } else if (value(unit) == 0) {
+                assign(unit, -1);
+            }
+        }
+        firstLearned = clauses.size();
+        maxLearned = Math.max(clauses.size() / 3.0, 1000);
+
+        for (int restart = 0; ; restart++) {
+            int result = search(luby(restart) * RESTART_CONFLICTS);
+            if (result != 0) {
+                return result == 1;
+            }
+        }
+    }
+
+    /**
+     * Searches until the sentence is solved or maxConflicts conflicts have happened.
+     * @return 1 if it is satisfiable, -1 if it is not, and 0 if it has to restart
+     */
+    private int search(long maxConflicts) {
+        long conflicts = 0;
+        while (true) {
+            int conflict = propagate();
+            if (conflict != -1) {
+                if (level == 0) {
+                    return -1;
+                }
+                conflicts++;
+                int[] clause = analyze(conflict);
+                backtrack(backtrackLevel);
+                if (clause.length == 1) {
+                    assign(clause[0], -1);
+                } else {
+                    int index = addClause(clause);
+                    learnedCount++;
+                    bumpClause(index);
+                    assign(clause[0], index);
+                }
+                increment /= ACTIVITY_DECAY;
+                clauseIncrement /= CLAUSE_DECAY;
+            } else {
+                if (conflicts >= maxConflicts) {
+                    backtrack(0);
+                    return 0;
+                }
+                if (learnedCount >= maxLearned) {
+                    reduceLearned();
+                    maxLearned *= 1.1;
+                }
+                int variable = pickBranchVariable();
+                if (variable == -1) {
+                    return 1;
+                }
+                levelStarts[level++] = trailSize;
+                assign(variable << 1 | (phases[variable] ? 0 : 1), -1);
+            }
+        }
+    }
+
+    /**
+     * Sorts clause and takes out repeated literals.
+     * @return The clause, or null if it always true because it has a literal and its negation
+     */
+    private static int[] normalize(int[] clause) {
+        int[] sorted = clause.clone();
+        Arrays.sort(sorted);
+        int size = 0;
+        for (int literal : sorted) {
+            if (size > 0 && sorted[size - 1] == literal) {
+                continue;
+            }
+            if (size > 0 && sorted[size - 1] == (literal ^ 1)) {
+                return null; // a literal and its negation are next to each other once sorted
+            }
+            sorted[size++] = literal;
+        }
+        return Arrays.copyOf(sorted, size);
+    }
+
+    /**
+     * Adds a clause of at least 2 literals, watching the first two.
+     * @return The index of the clause
+     */
+    private int addClause(int[] clause) {
+        int index = clauses.size();
+        clauses.add(clause);
+        watch(clause[0], index, clause[1]);
+        watch(clause[1], index, clause[0]);
+        return index;
+    }
+
+    private void watch(int literal, int clause, int blocker) {
+        int[] list = watches[literal];
+        if (list == null) {
+            list = watches[literal] = new int[8];
+        } else if (watchCounts[literal] == list.length) {
+            list = watches[literal] = Arrays.copyOf(list, list.length * 2);
+        }
+        list[watchCounts[literal]++] = clause;
+        list[watchCounts[literal]++] = blocker;
+    }
+
+    /**
+     * @return 1 if literal is true, -1 if it is false, and 0 if it has no value yet
+     */
+    private int value(int literal) {
+        int value = values[literal >> 1];
+        return (literal & 1) == 0 ? value : -value;
+    }
+
+    private void assign(int literal, int reason) {
+        int variable = literal >> 1;
+        values[variable] = (byte) ((literal & 1) == 0 ? 1 : -1);
+        levels[variable] = level;
+        reasons[variable] = reason;
+        trail[trailSize++] = literal;
+    }
+
+    /**
+     * Assigns every literal that is implied by the ones on the trail.
+     * @return The index of a clause that became false, or -1 if there was no conflict
+     */
+    private int propagate() {
+        while (propagated < trailSize) {
+            int falseLiteral = trail[propagated++] ^ 1;
+            int[] list = watches[falseLiteral];
+            int count = watchCounts[falseLiteral];
+            int kept = 0;
+            for (int i = 0; i < count; i += 2) {
+                int index = list[i];
+                int blocker = list[i + 1];
+                if (value(blocker) == 1) {
+                    list[kept++] = index;
+                    list[kept++] = blocker;
+                    continue;
+                }
+                int[] clause = clauses.get(index);
+                // the false literal is always kept second, so the first one is the one that might be implied
+                if (clause[0] == falseLiteral) {
+                    clause[0] = clause[1];
+                    clause[1] = falseLiteral;
+                }
+                if (value(clause[0]) == 1) {
+                    list[kept++] = index;
+                    list[kept++] = clause[0];
+                    continue;
+                }
+
+                boolean moved = false;
+                for (int k = 2; k < clause.length; k++) {
+                    if (value(clause[k]) != -1) {
+                        clause[1] = clause[k];
+                        clause[k] = falseLiteral;
+                        watch(clause[1], index, clause[0]);
+                        moved = true;
+                        break;
+                    }
+                }
+                if (moved) {
+                    continue;
+                }
+
+                list[kept++] = index;
+                list[kept++] = clause[0];
+                if (value(clause[0]) == -1) {
+                    for (i += 2; i < count; i++) {
+                        list[kept++] = list[i];
+                    }
+                    watchCounts[falseLiteral] = kept;
+                    return index;
+                }
+                assign(clause[0], index);
+            }
+            watchCounts[falseLiteral] = kept;
+        }
+        return -1;
+    }
+
+    /**
+     * Follows the conflict back to the first unique implication point, the one literal of the current level that every
+     * path from the last decision to the conflict goes through. Sets {@link #backtrackLevel} to the level the learned
+     * clause becomes a unit at.
+     * @return The learned clause, with the literal that it implies first
+     */
+    private int[] analyze(int conflict) {
+        int size = 1; // the first literal is filled in at the end
+        int pending = 0; // literals of the current level that still have to be followed back
+        int literal = -1;
+        int index = trailSize - 1;
+        do {
+            int[] clause = clauses.get(conflict);
+            if (conflict >= firstLearned) {
+                bumpClause(conflict);
+            }
+            // the first literal of a reason is the one it implied, which is already being followed back
+            for (int j = literal == -1 ? 0 : 1; j < clause.length; j++) {
+                int variable = clause[j] >> 1;
+                if (!seen[variable] && levels[variable] > 0) {
+                    bump(variable);
+                    seen[variable] = true;
+                    if (levels[variable] == level) {
+                        pending++;
+                    } else {
+                        if (size == learned.length) {
+                            learned = Arrays.copyOf(learned, size * 2);
+                        }
+                        learned[size++] = clause[j];
+                    }
+                }
+            }
+            while (!seen[trail[index] >> 1]) {
+                index--;
+            }
+            literal = trail[index--];
+            conflict = reasons[literal >> 1];
+            seen[literal >> 1] = false;
+            pending--;
+        } while (pending > 0);
+        learned[0] = literal ^ 1;
+
+        // a literal can be left out if everything that implied it is already in the clause
+        int[] unminimized = Arrays.copyOf(learned, size);
+        int kept = 1;
+        for (int j = 1; j < size; j++) {
+            if (!implied(learned[j])) {
+                learned[kept++] = learned[j];
+            }
+        }
+        for (int j = 1; j < size; j++) {
+            seen[unminimized[j] >> 1] = false;
+        }
+        size = kept;
+
+        // the second literal has to be the one from the highest level, so it is the last to become false again
+        backtrackLevel = 0;
+        for (int j = 1; j < size; j++) {
+            int variable = learned[j] >> 1;
+            if (levels[variable] > backtrackLevel) {
+                backtrackLevel = levels[variable];
+                int hold = learned[1];
+                learned[1] = learned[j];
+                learned[j] = hold;
+            }
+        }
+        return Arrays.copyOf(learned, size);
+    }
+
+    /**
+     * @return If the variable of literal was implied only by variables that are in the clause being learned (or were
+     * assigned before any decision)
+     */
+    private boolean implied(int literal) {
+        int reason = reasons[literal >> 1];
+        if (reason == -1) {
+            return false;
+        }
+        int[] clause = clauses.get(reason);
+        for (int k = 1; k < clause.length; k++) {
+            int variable = clause[k] >> 1;
+            if (!seen[variable] && levels[variable] > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void bumpClause(int index) {
+        if (index >= clauseActivities.length) {
+            clauseActivities = Arrays.copyOf(clauseActivities, Math.max(index + 1, clauseActivities.length * 2));
+        }
+        clauseActivities[index] += clauseIncrement;
+        if (clauseActivities[index] > 1e20) {
+            for (int i = 0; i < clauseActivities.length; i++) {
+                clauseActivities[i] *= 1e-20;
+            }
+            clauseIncrement *= 1e-20;
+        }
+    }
+
+    /**
+     * Deletes the half of the learned clauses that was used in the fewest recent conflicts. Clauses that are the
+     * reason a variable has its value, and clauses of 2 literals, are always kept. The clauses that are left are moved
+     * down over the deleted ones, so the memory used only depends on how many clauses are kept and not on how many
+     * were ever learned.
+     */
+    private void reduceLearned() {
+        ArrayList<Integer> candidates = new ArrayList<>();
+        for (int i = firstLearned; i < clauses.size(); i++) {
+            int[] clause = clauses.get(i);
+            if (clause.length > 2 && !(reasons[clause[0] >> 1] == i && value(clause[0]) == 1)) {
+                candidates.add(i);
+            }
+        }
+        candidates.sort((a, b) -> Double.compare(clauseActivities[a], clauseActivities[b]));
+        boolean[] deleted = new boolean[clauses.size()];
+        for (int i = 0; i < candidates.size() / 2; i++) {
+            deleted[candidates.get(i)] = true;
+            learnedCount--;
+        }
+
+        // where each clause ends up, or -1 if it was deleted
+        int[] moves = new int[clauses.size()];
+        int size = firstLearned;
+        for (int i = 0; i < firstLearned; i++) {
+            moves[i] = i;
+        }
+        for (int i = firstLearned; i < clauses.size(); i++) {
+            if (deleted[i]) {
+                moves[i] = -1;
+            } else {
+                moves[i] = size;
+                clauses.set(size, clauses.get(i));
+                clauseActivities[size] = i < clauseActivities.length ? clauseActivities[i] : 0;
+                size++;
+            }
+        }
+        clauses.subList(size, clauses.size()).clear();
+        clauseActivities = Arrays.copyOf(clauseActivities, Math.max(16, size));
+
+        for (int i = 0; i < trailSize; i++) {
+            int variable = trail[i] >> 1;
+            if (reasons[variable] != -1) {
+                reasons[variable] = moves[reasons[variable]]; // reasons are never deleted
+            }
+        }
+        for (int literal = 0; literal < watches.length; literal++) {
+            int[] list = watches[literal];
+            int kept = 0;
+            for (int i = 0; i < watchCounts[literal]; i += 2) {
+                if (moves[list[i]] != -1) {
+                    list[kept++] = moves[list[i]];
+                    list[kept++] = list[i + 1];
+                }
+            }
+            watchCounts[literal] = kept;
+        }
+    }
+
+    private void backtrack(int target) {
+        if (level <= target) {
+            return;
+        }
+        for (int i = trailSize - 1; i >= levelStarts[target]; i--) {
+            int variable = trail[i] >> 1;
+            phases[variable] = (trail[i] & 1) == 0;
+            values[variable] = 0;
+            if (heapIndexes[variable] == -1) {
+                heapInsert(variable);
+            }
+        }
+        trailSize = levelStarts[target];
+        propagated = trailSize;
+        level = target;
+    }
+
+    private int pickBranchVariable() {
+        while (heapSize > 0) {
+            int variable = heapRemoveMax();
+            if (values[variable] == 0) {
+                return variable;
+            }
+        }
+        return -1;
+    }
+
+    private void bump(int variable) {
+        activities[variable] += increment;
+        if (activities[variable] > 1e100) {
+            // scaling everything down keeps the order the same without overflowing
+            for (int v = 0; v < activities.length; v++) {
+                activities[v] *= 1e-100;
+            }
+            increment *= 1e-100;
+        }
+        if (heapIndexes[variable] != -1) {
+            siftUp(heapIndexes[variable]);
+        }
+    }
+
+    private void heapInsert(int variable) {
+        heap[heapSize] = variable;
+        heapIndexes[variable] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private int heapRemoveMax() {
+        int max = heap[0];
+        heapIndexes[max] = -1;
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndexes[heap[0]] = 0;
+            siftDown(0);
+        }
+        return max;
+    }
+
+    private void siftUp(int i) {
+        int variable = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (activities[heap[parent]] >= activities[variable]) {
+                break;
+            }
+            heap[i] = heap[parent];
+            heapIndexes[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = variable;
+        heapIndexes[variable] = i;
+    }
+
+    private void siftDown(int i) {
+        int variable = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && activities[heap[child + 1]] > activities[heap[child]]) {
+                child++;
+            }
+            if (activities[heap[child]] <= activities[variable]) {
+                break;
+            }
+            heap[i] = heap[child];
+            heapIndexes[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = variable;
+        heapIndexes[variable] = i;
+    }
+
+    /**
+     * @return The i-th number (from 0) of the Luby sequence, 1 1 2 1 1 2 4 1 1 2 1 1 2 4 8 ...
+     */
+    static long luby(int i) {
+        int size = 1;
+        int power = 0;
+        while (size < i + 1) {
+            power++;
+            size = 2 * size + 1;
+        }
+        while (size - 1 != i) {
+            size = (size - 1) >> 1;
+            power--;
+            i %= size;
+        }
+        return 1L << power;
+    }
+}
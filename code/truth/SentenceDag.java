@@ -0,0 +1,101 @@
+package truth;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * A {@link LogicalSentence} flattened into arrays, with one entry for every distinct object in it. A part that is
+ * shared (like the ones {@link SentenceFactory} makes) only gets one entry no matter how many times it is used. The
+ * entries are in topological order, so the sub sentences of an entry always come before it and the whole sentence is
+ * the last entry.
+ */
+final class SentenceDag {
+
+    final LogicalSentence.Type[] types;
+    final int[] ids; // the SymbolTable id of the variable of each simple entry
+    final int[] first; // the index of the first sub sentence of each entry, or -1
+    final int[] second; // the index of the second sub sentence of each entry, or -1
+    final int size;
+
+    private SentenceDag(LogicalSentence.Type[] types, int[] ids, int[] first, int[] second, int size) {
+        this.types = types;
+        this.ids = ids;
+        this.first = first;
+        this.second = second;
+        this.size = size;
+    }
+
+    /**
+     * Flattens sentence without recursion. Each object is only looked at once, so this takes time linear in the
+     * amount of distinct objects even if the tree they stand for is exponentially bigger.
+     */
+    static SentenceDag of(LogicalSentence sentence) {
+        IdentityHashMap<LogicalSentence, Integer> indexes = new IdentityHashMap<>();
+        LogicalSentence.Type[] types = new LogicalSentence.Type[16];
+        int[] ids = new int[16];
+        int[] first = new int[16];
+        int[] second = new int[16];
+        int size = 0;
+
+        ArrayDeque<LogicalSentence> stack = new ArrayDeque<>();
+        stack.push(sentence);
+        while (!stack.isEmpty()) {
+            LogicalSentence node = stack.peek();
+            if (indexes.containsKey(node)) {
+                stack.pop();
+                continue;
+            }
+            LogicalSentence a = node.getSubSentence(0);
+            LogicalSentence b = node.getSubSentence(1);
+            Integer aIndex = a == null ? null : indexes.get(a);
+            Integer bIndex = b == null ? null : indexes.get(b);
+            if ((a != null && aIndex == null) || (b != null && bIndex == null)) {
+                // the sub sentences have to get their entries first, this node is looked at again after them
+                if (b != null && bIndex == null) {
+                    stack.push(b);
+                }
+                if (a != null && aIndex == null) {
+                    stack.push(a);
+                }
+                continue;
+            }
+
+            if (size == types.length) {
+                types = Arrays.copyOf(types, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+                first = Arrays.copyOf(first, size * 2);
+                second = Arrays.copyOf(second, size * 2);
+            }
+            types[size] = node.getType();
+            ids[size] = node.getType() == LogicalSentence.Type.SIMPLE ? node.getId() : -1;
+            first[size] = aIndex == null ? -1 : aIndex;
+            second[size] = bIndex == null ? -1 : bIndex;
+            indexes.put(node, size++);
+            stack.pop();
+        }
+        return new SentenceDag(types, ids, first, second, size);
+    }
+
+    /**
+     * Works out the value of entry i from the values of its sub sentences, which have to already be in values.
+     */
+    boolean evaluate(int i, boolean[] values, TruthAssignment assignment) {
+        switch (types[i]) {
+            case SIMPLE:
+                return assignment.getValue(ids[i]);
+            case NEGATION:
+                return !values[first[i]];
+            case DISJUNCTION:
+                return values[first[i]] || values[second[i]];
+            case CONJUNCTION:
+                return values[first[i]] && values[second[i]];
+            case IMPLICATION:
+                return !values[first[i]] || values[second[i]];
+            case BICONDITIONAL:
+                return values[first[i]] == values[second[i]];
+            default:
+                throw new RuntimeException("Type is not recognized");
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package truth;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+/**
+ * Makes logical sentences in which equal parts are the same object (hash consing). Asking for a sentence that the
+ * factory has made before gives back the one it already made, so a sentence built out of many copies of the same part
+ * only stores that part once. Such a sentence is a directed acyclic graph instead of a tree, which is what
+ * {@link DagEvaluator} takes advantage of to only evaluate each part once.
+ *
+ * <p>Two sentences are equal here if they have the same type and variable and their sub sentences are the same
+ * objects, which is enough because the sub sentences were made by the factory too. A factory is not safe to use from
+ * several threads at once.
+ */
+public class SentenceFactory {
+
+    private final HashMap<Key, LogicalSentence> sentences = new HashMap<>();
+
+    /**
+     * @return The simple sentence for the variable name
+     */
+    public LogicalSentence simple(String name) {
+        Key key = new Key(LogicalSentence.Type.SIMPLE, SymbolTable.id(name), null, null);
+        return sentences.computeIfAbsent(key, k -> new LogicalSentence(name));
+    }
+
+    /**
+     * @return The negation of s, which has to have been made by this factory
+     */
+    public LogicalSentence not(LogicalSentence s) {
+        return make("~", s, null);
+    }
+
+    public LogicalSentence and(LogicalSentence s1, LogicalSentence s2) {
+        return make("&", s1, s2);
+    }
+
+    public LogicalSentence or(LogicalSentence s1, LogicalSentence s2) {
+        return make("|", s1, s2);
+    }
+
+    public LogicalSentence implies(LogicalSentence s1, LogicalSentence s2) {
+        return make("=>", s1, s2);
+    }
+
+    public LogicalSentence iff(LogicalSentence s1, LogicalSentence s2) {
+        return make("<=>", s1, s2);
+    }
+
+    /**
+     * Does the same thing as {@link LogicalSentence#LogicalSentence(String, LogicalSentence, LogicalSentence)}, but
+     * gives back the sentence that was already made if there is one. s1 and s2 have to have been made by this factory.
+     * @param type Type can only be "~", "|", "&", "=>", or "<=>".
+     */
+    public LogicalSentence make(String type, LogicalSentence s1, LogicalSentence s2) {
+        Key key = new Key(LogicalSentence.typeOf(type), -1, s1, s2);
+        LogicalSentence existing = sentences.get(key);
+        if (existing == null) {
+            existing = new LogicalSentence(type, s1, s2);
+            sentences.put(key, existing);
+        }
+        return existing;
+    }
+
+    /**
+     * Makes a copy of sentence out of this factory's sentences, so every part of it that shows up more than once is
+     * shared. The sentence is walked without recursion, and each object in it is only copied once, so this also works
+     * for sentences that already share some of their parts.
+     * @param sentence Any sentence
+     * @return The same sentence, made by this factory
+     */
+    public LogicalSentence intern(LogicalSentence sentence) {
+        IdentityHashMap<LogicalSentence, LogicalSentence> copies = new IdentityHashMap<>();
+        ArrayDeque<LogicalSentence> stack = new ArrayDeque<>();
+        stack.push(sentence);
+        while (!stack.isEmpty()) {
+            LogicalSentence node = stack.peek();
+            if (copies.containsKey(node)) {
+                stack.pop();
+                continue;
+            }
+            if (node.getType() == LogicalSentence.Type.SIMPLE) {
+                copies.put(node, simple(node.getVariable()));
+                stack.pop();
+                continue;
+            }
+
+            LogicalSentence first = node.getSubSentence(0);
+            LogicalSentence second = node.getSubSentence(1);
+            LogicalSentence firstCopy = copies.get(first);
+            LogicalSentence secondCopy = second == null ? null : copies.get(second);
+            if (firstCopy == null || (second != null && secondCopy == null)) {
+                // the sub sentences have to be copied first, this node is looked at again after them
+                if (firstCopy == null) {
+                    stack.push(first);
+                }
+                if (second != null && secondCopy == null) {
+                    stack.push(second);
+                }
+                continue;
+            }
+            copies.put(node, make(typeSymbol(node.getType()), firstCopy, secondCopy));
+            stack.pop();
+        }
+        return copies.get(sentence);
+    }
+
+    /**
+     * @return The amount of different sentences this factory has made
+     */
+    public int size() {
+        return sentences.size();
+    }
+
+    static String typeSymbol(LogicalSentence.Type type) {
+        switch (type) {
+            case NEGATION:
+                return "~";
+            case DISJUNCTION:
+                return "|";
+            case CONJUNCTION:
+                return "&";
+            case IMPLICATION:
+                return "=>";
+            case BICONDITIONAL:
+                return "<=>";
+            default:
+                throw new IllegalArgumentException("Type has no symbol");
+        }
+    }
+
+    /**
+     * What makes two sentences equal, with the sub sentences compared by identity.
+     */
+    private static final class Key {
+        private final LogicalSentence.Type type;
+        private final int id;
+        private final LogicalSentence first;
+        private final LogicalSentence second;
+
+        Key(LogicalSentence.Type type, int id, LogicalSentence first, LogicalSentence second) {
+            this.type = type;
+            this.id = id;
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return type == other.type && id == other.id && first == other.first && second == other.second;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = type.ordinal();
+            hash = hash * 31 + id;
+            hash = hash * 31 + System.identityHashCode(first);
+            return hash * 31 + System.identityHashCode(second);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package truth;
+
+import java.util.Arrays;
+
+/**
+ * Reads logical sentences such as {@code ~a => b & ~~c} in a single pass over the characters. A sentence is one or
+ * more variables (single lower case letters, each with any amount of {@code ~} in front of it) with an operator
+ * between every two of them. The operators are:
+ * <ul>
+ *     <li>{@code &} or {@code ,} for a conjunction</li>
+ *     <li>{@code |} for a disjunction</li>
+ *     <li>{@code =>} for an implication, with any amount of {@code =}</li>
+ *     <li>{@code <=} for an implication going the other way, so {@code a <= b} is the same as {@code b => a}</li>
+ *     <li>{@code <=>} for a biconditional, also with any amount of {@code =}</li>
+ * </ul>
+ * Whitespace is allowed between any of these. From the one that binds the tightest to the one that binds the loosest,
+ * they go {@code ~}, {@code &}, {@code |}, {@code =>} and {@code <=}, then {@code <=>}. Implications and biconditionals
+ * group to the right, so {@code a => b => c} is {@code a => (b => c)}.
+ *
+ * <p>{@link #legal(CharSequence)} only has to check that operands and operators take turns, so it never builds
+ * anything. {@link #parse(CharSequence)} uses a stack of operands and a stack of operators instead of recursion, so
+ * neither of them can run out of stack on long sentences and both take time linear in the length of the sentence.
+ */
+public final class SentenceParser {
+
+    private static final int END = 0;
+    private static final int VARIABLE = 1;
+    private static final int NOT = 2;
+    private static final int AND = 3;
+    private static final int OR = 4;
+    private static final int IMPLIES = 5;
+    private static final int IMPLIED_BY = 6;
+    private static final int IFF = 7;
+    private static final int ERROR = 8;
+
+    private static final String[] VARIABLES = new String[26]; // so that a String is not made for every variable
+
+    static {
+        for (int i = 0; i < VARIABLES.length; i++) {
+            VARIABLES[i] = String.valueOf((char) ('a' + i));
+        }
+    }
+
+    private final CharSequence sentence;
+    private int position;
+    private int start; // where the last token started
+    private char variable; // the letter of the last token if it was a variable
+
+    private SentenceParser(CharSequence sentence) {
+        this.sentence = sentence;
+    }
+
+    /**
+     * Returns true if the sentence is a legal logical sentence, which includes simple sentences and negations.
+     * @param sentence The sentence to check
+     * @return If the sentence is a legal logical sentence
+     */
+    public static boolean legal(CharSequence sentence) {
+        SentenceParser parser = new SentenceParser(sentence);
+        boolean operand = true; // whether the next token has to be (the start of) an operand
+        while (true) {
+            int token = parser.next();
+            if (operand) {
+                if (token == VARIABLE) {
+                    operand = false;
+                } else if (token != NOT) {
+                    return false;
+                }
+            } else if (token == END) {
+                return true;
+            } else if (precedence(token) == 0) {
+                return false;
+            } else {
+                operand = true;
+            }
+        }
+    }
+
+    /**
+     * Turns the sentence into a {@link LogicalSentence}. Will throw {@link IllegalArgumentException} if the sentence is
+     * not legal, see {@link #legal(CharSequence)}.
+     * @param sentence The sentence to read
+     * @return The logical sentence it stands for
+     */
+    public static LogicalSentence parse(CharSequence sentence) {
+        SentenceParser parser = new SentenceParser(sentence);
+        LogicalSentence[] operands = new LogicalSentence[8];
+        int[] operators = new int[8];
+        int operandCount = 0;
+        int operatorCount = 0;
+
+        while (true) {
+            int negations = 0;
+            int token = parser.next();
+            while (token == NOT) {
+                negations++;
+                token = parser.next();
+            }
+            if (token != VARIABLE) {
+                throw parser.error("Expected a variable");
+            }
+            LogicalSentence operand = new LogicalSentence(VARIABLES[parser.variable - 'a']);
+            for (int i = 0; i < negations; i++) {
+                operand = new LogicalSentence(operand);
+            }
+            if (operandCount == operands.length) {
+                operands = Arrays.copyOf(operands, operandCount * 2);
+            }
+            operands[operandCount++] = operand;
+
+            token = parser.next();
+            if (token == END) {
+                break;
+            }
+            int precedence = precedence(token);
+            if (precedence == 0) {
+                throw parser.error("Expected an operator");
+            }
+            // everything on the stack that binds tighter (or as tight and groups to the left) has to be done first
+            while (operatorCount > 0 && (precedence(operators[operatorCount - 1]) > precedence
+                    || (precedence(operators[operatorCount - 1]) == precedence && !groupsRight(token)))) {
+                operandCount--;
+                operands[operandCount - 1] = combine(operators[--operatorCount], operands[operandCount - 1],
+                                                     operands[operandCount]);
+            }
+            if (operatorCount == operators.length) {
+                operators = Arrays.copyOf(operators, operatorCount * 2);
+            }
+            operators[operatorCount++] = token;
+        }
+
+        while (operatorCount > 0) {
+            operandCount--;
+            operands[operandCount - 1] = combine(operators[--operatorCount], operands[operandCount - 1],
+                                                 operands[operandCount]);
+        }
+        return operands[0];
+    }
+
+    private static LogicalSentence combine(int operator, LogicalSentence left, LogicalSentence right) {
+        switch (operator) {
+            case AND:
+                return new LogicalSentence("&", left, right);
+            case OR:
+                return new LogicalSentence("|", left, right);
+            case IMPLIES:
+                return new LogicalSentence("=>", left, right);
+            case IMPLIED_BY:
+                return new LogicalSentence("=>", right, left);
+            case IFF:
+                return new LogicalSentence("<=>", left, right);
+            default:
+                throw new RuntimeException("Operator is not recognized");
+        }
+    }
+
+    /**
+     * @return How tightly a binary operator binds, or 0 if the token is not a binary operator
+     */
+    private static int precedence(int token) {
+        switch (token) {
+            case AND:
+                return 4;
+            case OR:
+                return 3;
+            case IMPLIES:
+            case IMPLIED_BY:
+                return 2;
+            case IFF:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    private static boolean groupsRight(int token) {
+        return token == IMPLIES || token == IMPLIED_BY || token == IFF;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(String.format("%s at %d in \"%s\"", message, start, sentence));
+    }
+
+    /**
+     * Reads the next token, skipping any whitespace in front of it.
+     */
+    private int next() {
+        while (position < sentence.length() && isWhitespace(sentence.charAt(position))) {
+            position++;
+        }
+        start = position;
+        if (position == sentence.length()) {
+            return END;
+        }
+
+        char c = sentence.charAt(position++);
+        if (c >= 'a' && c <= 'z') {
+            variable = c;
+            return VARIABLE;
+        }
+        switch (c) {
+            case '~':
+                return NOT;
+            case '&':
+            case ',':
+                return AND;
+            case '|':
+                return OR;
+            case '=':
+                skipEquals();
+                return consume('>') ? IMPLIES : ERROR;
+            case '<':
+                if (skipEquals() == 0) {
+                    return ERROR;
+                }
+                return consume('>') ? IFF : IMPLIED_BY;
+            default:
+                return ERROR;
+        }
+    }
+
+    private int skipEquals() {
+        int count = 0;
+        while (position < sentence.length() && sentence.charAt(position) == '=') {
+            position++;
+            count++;
+        }
+        return count;
+    }
+
+    private boolean consume(char c) {
+        if (position < sentence.length() && sentence.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * The same characters as \s in a regular expression.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
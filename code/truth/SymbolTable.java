@@ -0,0 +1,74 @@
+package truth;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gives every variable name a small number (its id), starting at 0 and going up by one for every new name. A
+ * {@link LogicalSentence} looks up the id of its variable once when it is made, so evaluating it only has to test a
+ * bit in a {@link TruthAssignment} instead of hashing the name every time.
+ *
+ * <p>There is only one table, shared by every sentence and assignment, and names are never removed from it. It is safe
+ * to use from several threads at once.
+ */
+public final class SymbolTable {
+
+    private static final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[64];
+    private static int size; // only changed while holding the lock on ids
+
+    private SymbolTable() {
+    }
+
+    /**
+     * @param name The name of a variable
+     * @return The id of name, which is given to it now if it does not have one yet
+     */
+    public static int id(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (ids) {
+            id = ids.get(name);
+            if (id == null) {
+                if (size == names.length) {
+                    names = Arrays.copyOf(names, size * 2);
+                }
+                // the name has to be stored before the id is published, so name(id) always works for a known id
+                names[size] = name;
+                id = size++;
+                ids.put(name, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * @param name The name of a variable
+     * @return The id of name, or -1 if it does not have one
+     */
+    public static int find(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @param id The id of a variable
+     * @return The name of the variable with that id
+     */
+    public static String name(int id) {
+        String[] names = SymbolTable.names;
+        if (id < 0 || id >= names.length || names[id] == null) {
+            throw new IllegalArgumentException(String.format("%d is not the id of a variable", id));
+        }
+        return names[id];
+    }
+
+    /**
+     * @return The amount of names that have an id
+     */
+    public static int size() {
+        return ids.size();
+    }
+}
@@ -2,6 +2,12 @@ package truth;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
@@ -73,4 +79,482 @@ public class Tests {
         assertThrows(IllegalArgumentException.class,
                      () -> new LogicalSentence("<=?>", new LogicalSentence("b"), new LogicalSentence("b")));
     }
+
+    @Test
+    public void testSentenceParser() {
+        assertEquals("a", SentenceParser.parse("  a ").toString());
+        assertEquals("~~a", SentenceParser.parse(" ~ ~a").toString());
+        assertEquals("(~a => (b & ~~c))", SentenceParser.parse("~a => b & ~~c").toString());
+        assertEquals("((a & b) | c)", SentenceParser.parse("a, b | c").toString());
+        assertEquals("(a | (b & c))", SentenceParser.parse("a | b & c").toString());
+        assertEquals("((a & b) & c)", SentenceParser.parse("a & b & c").toString());
+        assertEquals("(a => (b => c))", SentenceParser.parse("a ==> b => c").toString());
+        assertEquals("(b => a)", SentenceParser.parse("a <=== b").toString());
+        assertEquals("((a => b) <=> (c | d))", SentenceParser.parse("a => b <====> c | d").toString());
+        assertEquals("(((b => c) => ~~a) <=> a)", SentenceParser.parse("~~a <=   b  ==> c <====>a").toString());
+
+        TruthAssignment assignment = new TruthAssignment(new String[]{"a", "b"}, new boolean[]{false, true});
+        assertFalse(SentenceParser.parse("a <= b | ~b").getValue(assignment));
+        assertTrue(SentenceParser.parse("a => b & b").getValue(assignment));
+
+        assertThrows(IllegalArgumentException.class, () -> SentenceParser.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> SentenceParser.parse("a ==>"));
+        assertThrows(IllegalArgumentException.class, () -> SentenceParser.parse("a b"));
+        assertThrows(IllegalArgumentException.class, () -> SentenceParser.parse("A & b"));
+        assertThrows(IllegalArgumentException.class, () -> SentenceParser.parse("a <> b"));
+
+        // a long sentence only takes one pass, and does not need a deep stack to be read
+        StringBuilder sentence = new StringBuilder("a");
+        for (int i = 0; i < 200000; i++) {
+            sentence.append(i % 2 == 0 ? " => ~b" : " & c");
+        }
+        assertTrue(SentenceParser.legal(sentence));
+        assertNotNull(SentenceParser.parse(sentence));
+        assertFalse(SentenceParser.legal(sentence.append(" &")));
+    }
+
+    @Test
+    public void testCompile() {
+        String[] sentences = {"a", "~a", "~~a", "a & b", "a | ~b", "a => b", "a <=> ~b", "~a <= b | c & ~~d <=> a"};
+        String[] names = {"a", "b", "c", "d"};
+        for (String sentence : sentences) {
+            LogicalSentence ls = SentenceParser.parse(sentence);
+            var compiled = ls.compile();
+            for (int bits = 0; bits < 16; bits++) {
+                boolean[] values = new boolean[names.length];
+                for (int i = 0; i < names.length; i++) {
+                    values[i] = (bits >> i & 1) == 1;
+                }
+                TruthAssignment assignment = new TruthAssignment(names, values);
+                assertEquals(ls.getValue(assignment), compiled.test(assignment), sentence);
+            }
+        }
+
+        var missing = SentenceParser.parse("a & e").compile();
+        TruthAssignment assignment = new TruthAssignment(new String[]{"a"}, new boolean[]{true});
+        assertThrows(IllegalArgumentException.class, () -> missing.test(assignment));
+    }
+
+    @Test
+    public void testTruthTable() {
+        // less than 6 variables, exactly 6, and more than 6, so every kind of variable mask is used
+        String[] sentences = {"a", "~a & b", "a => b <=> ~c | d", "a & b | c & d | e & f", "a <= b => c & d <=> e | f & ~g"};
+        for (String sentence : sentences) {
+            LogicalSentence ls = SentenceParser.parse(sentence);
+            TruthTable table = new TruthTable(ls);
+            assertEquals(1L << table.getVariables().length, table.rows());
+            long count = 0;
+            for (long row = 0; row < table.rows(); row++) {
+                boolean value = ls.getValue(table.getAssignment(row));
+                assertEquals(value, table.getValue(row), sentence);
+                assertEquals(value, table.toBitSet().get((int) row));
+                count += value ? 1 : 0;
+            }
+            assertEquals(count, table.countTrue());
+            assertEquals(count, table.toBitSet().cardinality());
+        }
+
+        TruthTable table = new TruthTable(SentenceParser.parse("b & ~a"));
+        assertArrayEquals(new String[]{"a", "b"}, table.getVariables());
+        assertArrayEquals(new long[]{0b0100}, table.toLongArray());
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> table.getValue(4));
+
+        // 24 variables is 2^24 rows, which only takes a moment
+        StringBuilder big = new StringBuilder("a");
+        for (char c = 'b'; c <= 'x'; c++) {
+            big.append(c % 3 == 0 ? " | " : c % 3 == 1 ? " & ~" : " => ").append(c);
+        }
+        LogicalSentence ls = SentenceParser.parse(big);
+        TruthTable bigTable = new TruthTable(ls);
+        assertEquals(1L << 24, bigTable.rows());
+        for (long row = 0; row < bigTable.rows(); row += 99991) {
+            assertEquals(ls.getValue(bigTable.getAssignment(row)), bigTable.getValue(row));
+        }
+    }
+
+    @Test
+    public void testSymbolTable() {
+        int a = SymbolTable.id("a");
+        assertEquals(a, SymbolTable.id("a"));
+        assertEquals(a, SymbolTable.find("a"));
+        assertEquals("a", SymbolTable.name(a));
+        assertEquals(-1, SymbolTable.find("a name that is never used"));
+        assertThrows(IllegalArgumentException.class, () -> SymbolTable.name(-1));
+
+        // enough names that the ids go past the first word of the assignment
+        String[] names = new String[200];
+        boolean[] values = new boolean[names.length];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "symbol" + i;
+            values[i] = i % 3 == 0;
+        }
+        TruthAssignment assignment = new TruthAssignment(names, values);
+        for (int i = 0; i < names.length; i++) {
+            assertEquals(values[i], assignment.getValue(names[i]));
+            assertEquals(values[i], assignment.getValue(SymbolTable.id(names[i])));
+        }
+        assertThrows(IllegalArgumentException.class, () -> assignment.getValue(SymbolTable.id("not in it")));
+
+        TruthAssignment small = new TruthAssignment(new String[]{"a", "b"}, new boolean[]{true, false});
+        assertEquals(SymbolTable.id("a") < SymbolTable.id("b") ? "{a=true, b=false}" : "{b=false, a=true}",
+                     small.toString());
+        assertTrue(new LogicalSentence("&", new LogicalSentence("a"), new LogicalSentence(new LogicalSentence("b")))
+                           .getValue(small));
+    }
+
+    /**
+     * @return A random sentence of the parser's syntax with the given amount of operators over the first variables
+     * letters
+     */
+    private static String randomSentence(Random random, int operators, int variables) {
+        String[] symbols = {" & ", " | ", " => ", " <= ", " <=> "};
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i <= operators; i++) {
+            if (i > 0) {
+                sentence.append(symbols[random.nextInt(symbols.length)]);
+            }
+            for (int n = random.nextInt(3); n > 0; n--) {
+                sentence.append('~');
+            }
+            sentence.append((char) ('a' + random.nextInt(variables)));
+        }
+        return sentence.toString();
+    }
+
+    /**
+     * @return The conjunction of every sentence, made as a balanced tree so evaluating it does not go too deep
+     */
+    private static LogicalSentence all(LogicalSentence[] sentences, int from, int to) {
+        if (to - from == 1) {
+            return sentences[from];
+        }
+        int middle = (from + to) >>> 1;
+        return new LogicalSentence("&", all(sentences, from, middle), all(sentences, middle, to));
+    }
+
+    @Test
+    public void testSatSolver() {
+        long[] expected = {1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, 1};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], SatSolver.luby(i));
+        }
+
+        assertNotNull(SatSolver.solve(SentenceParser.parse("a")));
+        assertNull(SatSolver.solve(SentenceParser.parse("a & ~a")));
+        assertTrue(SatSolver.satisfiable(SentenceParser.parse("a => b & ~b")));
+        assertFalse(SatSolver.satisfiable(SentenceParser.parse("a <=> ~a")));
+
+        // every answer has to agree with the truth table, and every witness has to make the sentence true
+        Random random = new Random(21);
+        for (int i = 0; i < 500; i++) {
+            LogicalSentence sentence = SentenceParser.parse(randomSentence(random, 1 + random.nextInt(30),
+                                                                           1 + random.nextInt(8)));
+            TruthAssignment witness = SatSolver.solve(sentence);
+            assertEquals(new TruthTable(sentence).countTrue() > 0, witness != null, sentence.toString());
+            if (witness != null) {
+                assertTrue(sentence.getValue(witness), sentence.toString());
+            }
+        }
+
+        // 6 pigeons can not go in 5 holes, which takes a lot of conflicts to find out
+        int pigeons = 6;
+        int holes = 5;
+        ArrayList<LogicalSentence> clauses = new ArrayList<>();
+        for (int p = 0; p < pigeons; p++) {
+            LogicalSentence somewhere = new LogicalSentence("pigeon" + p + "hole0");
+            for (int h = 1; h < holes; h++) {
+                somewhere = new LogicalSentence("|", somewhere, new LogicalSentence("pigeon" + p + "hole" + h));
+            }
+            clauses.add(somewhere);
+        }
+        for (int h = 0; h < holes; h++) {
+            for (int p = 0; p < pigeons; p++) {
+                for (int q = p + 1; q < pigeons; q++) {
+                    clauses.add(new LogicalSentence("=>", new LogicalSentence("pigeon" + p + "hole" + h),
+                            new LogicalSentence(new LogicalSentence("pigeon" + q + "hole" + h))));
+                }
+            }
+        }
+        LogicalSentence pigeonhole = all(clauses.toArray(new LogicalSentence[0]), 0, clauses.size());
+        assertNull(SatSolver.solve(pigeonhole));
+        clauses.remove(pigeons - 1); // without the last pigeon they fit
+        pigeonhole = all(clauses.toArray(new LogicalSentence[0]), 0, clauses.size());
+        TruthAssignment fits = SatSolver.solve(pigeonhole);
+        assertNotNull(fits);
+        assertTrue(pigeonhole.getValue(fits));
+
+        // a chain of thousands of implications
+        int length = 3000;
+        LogicalSentence[] chain = new LogicalSentence[length + 1];
+        for (int i = 0; i < length; i++) {
+            chain[i] = new LogicalSentence("=>", new LogicalSentence("link" + i), new LogicalSentence("link" + (i + 1)));
+        }
+        chain[length] = new LogicalSentence("link0");
+        LogicalSentence implications = all(chain, 0, chain.length);
+        TruthAssignment witness = SatSolver.solve(implications);
+        assertNotNull(witness);
+        assertTrue(witness.getValue("link" + length));
+        assertNull(SatSolver.solve(new LogicalSentence("&", implications,
+                new LogicalSentence(new LogicalSentence("link" + length)))));
+
+        // every level uses the one below it several times, so as a tree the sentences have about 2^60 nodes, but
+        // the conversion only looks at each distinct part once
+        SentenceFactory factory = new SentenceFactory();
+        LogicalSentence x = factory.simple("x");
+        LogicalSentence y = factory.simple("y");
+        LogicalSentence level = x;
+        LogicalSentence conjunctions = x;
+        LogicalSentence disjunctions = factory.not(x);
+        for (int i = 0; i < 60; i++) {
+            // (level | y) <=> (level & y) is level <=> y, so an even amount of levels comes back to x
+            level = factory.iff(factory.or(level, y), factory.and(level, y));
+            conjunctions = factory.and(conjunctions, conjunctions);
+            disjunctions = factory.or(disjunctions, factory.not(disjunctions));
+        }
+        witness = SatSolver.solve(level);
+        assertNotNull(witness);
+        assertTrue(new DagEvaluator(level).getValue(witness));
+        assertNull(SatSolver.solve(factory.and(level, factory.not(x))));
+        assertNull(SatSolver.solve(factory.and(conjunctions, factory.not(x))));
+        assertTrue(new DagEvaluator(conjunctions).getValue(SatSolver.solve(conjunctions)));
+        assertFalse(SatSolver.satisfiable(factory.not(disjunctions))); // disjunctions is always true
+    }
+
+    @Test
+    public void testSentenceFactory() {
+        SentenceFactory factory = new SentenceFactory();
+        LogicalSentence a = factory.simple("a");
+        assertSame(a, factory.simple("a"));
+        assertSame(factory.and(a, factory.not(factory.simple("b"))), factory.and(a, factory.not(factory.simple("b"))));
+        assertNotSame(factory.and(a, factory.simple("b")), factory.and(factory.simple("b"), a));
+        assertNotSame(factory.or(a, a), factory.and(a, a));
+
+        LogicalSentence parsed = SentenceParser.parse("a & b | a & b => ~~c");
+        LogicalSentence interned = factory.intern(parsed);
+        assertEquals(parsed.toString(), interned.toString());
+        assertSame(factory.intern(SentenceParser.parse("a & b")), interned.getSubSentence(0).getSubSentence(0));
+        assertSame(interned.getSubSentence(0).getSubSentence(0), interned.getSubSentence(0).getSubSentence(1));
+        // a, b, a & b, the disjunction, c, ~c, ~~c and the implication
+        assertEquals(8, new DagEvaluator(interned).size());
+    }
+
+    @Test
+    public void testDagEvaluator() {
+        // every level uses the one below it twice, so the tree doubles in size with every level but the DAG does not
+        SentenceFactory factory = new SentenceFactory();
+        LogicalSentence b = factory.simple("b");
+        LogicalSentence notC = factory.not(factory.simple("c"));
+        LogicalSentence[] levels = new LogicalSentence[61];
+        levels[0] = factory.simple("a");
+        for (int i = 1; i < levels.length; i++) {
+            LogicalSentence below = levels[i - 1];
+            levels[i] = i % 2 == 0 ? factory.or(factory.and(below, b), factory.and(below, notC))
+                                   : factory.iff(factory.implies(below, b), factory.or(below, notC));
+        }
+
+        String[] names = {"a", "b", "c"};
+        for (int bits = 0; bits < 8; bits++) {
+            TruthAssignment assignment = new TruthAssignment(names, new boolean[]{
+                    (bits & 1) != 0, (bits & 2) != 0, (bits & 4) != 0});
+            // the tree of level 12 still has a few thousand nodes, which getValue can go through
+            assertEquals(levels[12].getValue(assignment), new DagEvaluator(levels[12]).getValue(assignment));
+            // 2^60 nodes as a tree, but only a few hundred distinct ones
+            DagEvaluator evaluator = new DagEvaluator(levels[60]);
+            assertTrue(evaluator.size() < 300);
+            boolean a = (bits & 1) != 0, bValue = (bits & 2) != 0, cValue = (bits & 4) != 0;
+            boolean expected = a;
+            for (int i = 1; i < levels.length; i++) {
+                expected = i % 2 == 0 ? expected && bValue || expected && !cValue
+                                      : (!expected || bValue) == (expected || !cValue);
+            }
+            assertEquals(expected, evaluator.getValue(assignment));
+        }
+    }
+
+    @Test
+    public void testBdd() {
+        // every node has to agree with the truth table, and equivalent sentences have to get the same node
+        Bdd bdd = new Bdd();
+        Random random = new Random(23);
+        for (int i = 0; i < 300; i++) {
+            LogicalSentence sentence = SentenceParser.parse(randomSentence(random, 1 + random.nextInt(20),
+                                                                           1 + random.nextInt(8)));
+            int f = bdd.compile(sentence);
+            TruthTable table = new TruthTable(sentence);
+            for (long row = 0; row < table.rows(); row++) {
+                assertEquals(table.getValue(row), bdd.getValue(f, table.getAssignment(row)), sentence.toString());
+            }
+            assertEquals(table.countTrue() == table.rows(), bdd.tautology(f), sentence.toString());
+            LogicalSentence doubled = new LogicalSentence(new LogicalSentence(sentence));
+            assertTrue(bdd.equivalent(f, bdd.compile(doubled)));
+        }
+        assertTrue(bdd.entails(bdd.compile(SentenceParser.parse("a & b")), bdd.compile(SentenceParser.parse("a | c"))));
+        assertFalse(bdd.entails(bdd.compile(SentenceParser.parse("a | b")), bdd.compile(SentenceParser.parse("a"))));
+
+        // De Morgan over 40 variables, which is more rows than a truth table can have
+        SentenceFactory factory = new SentenceFactory();
+        LogicalSentence conjunction = factory.simple("v0");
+        LogicalSentence disjunction = factory.not(factory.simple("v0"));
+        for (int i = 1; i < 40; i++) {
+            conjunction = factory.and(conjunction, factory.simple("v" + i));
+            disjunction = factory.or(disjunction, factory.not(factory.simple("v" + i)));
+        }
+        assertTrue(bdd.tautology(bdd.compile(factory.iff(factory.not(conjunction), disjunction))));
+        assertTrue(bdd.equivalent(bdd.compile(conjunction), bdd.not(bdd.compile(disjunction))));
+
+        // nothing was referenced, so everything is garbage
+        assertTrue(bdd.nodeCount() > 0);
+        bdd.gc();
+        assertEquals(0, bdd.nodeCount());
+    }
+
+    @Test
+    public void testBddReorder() {
+        // (x0 & y0) | (x1 & y1) | ... needs exponentially many nodes if every x comes before every y, but only two per
+        // pair if each x is next to its y
+        int pairs = 8;
+        Bdd bdd = new Bdd();
+        for (int i = 0; i < pairs; i++) {
+            bdd.variable("x" + i);
+        }
+        SentenceFactory factory = new SentenceFactory();
+        LogicalSentence sentence = null;
+        for (int i = 0; i < pairs; i++) {
+            LogicalSentence pair = factory.and(factory.simple("x" + i), factory.simple("y" + i));
+            sentence = sentence == null ? pair : factory.or(sentence, pair);
+        }
+        int f = bdd.ref(bdd.compile(sentence));
+        int before = bdd.nodeCount(f);
+        assertTrue(before > 500);
+
+        bdd.reorder();
+        assertEquals(2 * pairs, bdd.nodeCount(f));
+        assertEquals(2 * pairs, bdd.nodeCount());
+        assertEquals(f, bdd.compile(sentence)); // the node still stands for the same function
+
+        String[] names = new String[2 * pairs];
+        for (int i = 0; i < pairs; i++) {
+            names[2 * i] = "x" + i;
+            names[2 * i + 1] = "y" + i;
+        }
+        Random random = new Random(24);
+        for (int i = 0; i < 200; i++) {
+            boolean[] values = new boolean[names.length];
+            for (int n = 0; n < values.length; n++) {
+                values[n] = random.nextBoolean();
+            }
+            TruthAssignment assignment = new TruthAssignment(names, values);
+            assertEquals(sentence.getValue(assignment), bdd.getValue(f, assignment));
+        }
+
+        bdd.deref(f);
+        assertThrows(IllegalArgumentException.class, () -> bdd.deref(f));
+        bdd.gc();
+        assertEquals(0, bdd.nodeCount());
+
+        // with every node referenced there is nothing free to reuse, so swapping has to grow the table
+        Bdd referenced = new Bdd();
+        int p = referenced.ref(referenced.variable("pa"));
+        int q = referenced.ref(referenced.variable("pb"));
+        int same = referenced.ref(referenced.iff(p, q));
+        referenced.reorder();
+        assertEquals(same, referenced.iff(p, q));
+        assertTrue(referenced.getValue(same, new TruthAssignment(new String[]{"pa", "pb"}, new boolean[]{true, true})));
+        assertFalse(referenced.getValue(same, new TruthAssignment(new String[]{"pa", "pb"}, new boolean[]{true, false})));
+    }
+
+    @Test
+    public void testParallelEnumerator() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Random random = new Random(25);
+            for (int i = 0; i < 100; i++) {
+                // up to 20 variables, so some tables are several blocks long
+                LogicalSentence sentence = SentenceParser.parse(randomSentence(random, 1 + random.nextInt(40),
+                                                                               1 + random.nextInt(20)));
+                TruthTable table = new TruthTable(sentence);
+                ParallelEnumerator enumerator = new ParallelEnumerator(sentence, pool);
+                assertArrayEquals(table.getVariables(), enumerator.getVariables());
+                assertEquals(table.countTrue(), enumerator.countTrue(), sentence.toString());
+
+                BitSet expected = table.toBitSet();
+                long[] previous = {-1};
+                enumerator.forEachTrue(row -> {
+                    assertTrue(row > previous[0], "rows have to come in order");
+                    assertTrue(expected.get((int) row), sentence.toString());
+                    expected.clear((int) row);
+                    previous[0] = row;
+                });
+                assertTrue(expected.isEmpty(), sentence.toString());
+            }
+
+            ParallelEnumerator enumerator = new ParallelEnumerator(SentenceParser.parse("a & ~b"));
+            assertEquals(1, enumerator.countTrue());
+            enumerator.forEachTrue(row -> {
+                assertTrue(enumerator.getAssignment(row).getValue("a"));
+                assertFalse(enumerator.getAssignment(row).getValue("b"));
+            });
+            assertThrows(ArrayIndexOutOfBoundsException.class, () -> enumerator.getAssignment(4));
+
+            // about 2^60 nodes as a tree, but the programs only get one instruction per distinct part
+            SentenceFactory factory = new SentenceFactory();
+            LogicalSentence x = factory.simple("x");
+            LogicalSentence y = factory.simple("y");
+            LogicalSentence level = x;
+            for (int i = 0; i < 60; i++) {
+                level = factory.iff(factory.or(level, y), factory.and(level, y)); // level <=> y
+            }
+            assertEquals(2, new ParallelEnumerator(level, pool).countTrue());
+            assertArrayEquals(new long[]{0b1010}, new TruthTable(level).toLongArray()); // the rows where x is true
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testIncrementalEvaluator() {
+        // flipping random variables has to give the same value as evaluating the whole sentence again
+        Random random = new Random(26);
+        String[] names = {"a", "b", "c", "d", "e", "f", "g", "h"};
+        for (int i = 0; i < 100; i++) {
+            LogicalSentence sentence = SentenceParser.parse(randomSentence(random, 1 + random.nextInt(30), 8));
+            boolean[] values = new boolean[names.length];
+            for (int n = 0; n < values.length; n++) {
+                values[n] = random.nextBoolean();
+            }
+            TruthAssignment assignment = new TruthAssignment(names, values);
+            IncrementalEvaluator evaluator = new IncrementalEvaluator(sentence, assignment);
+            assertEquals(sentence.getValue(assignment), evaluator.getValue());
+            for (int flip = 0; flip < 50; flip++) {
+                String name = names[random.nextInt(names.length)];
+                boolean value = evaluator.setValue(name, !assignment.getValue(name));
+                assertEquals(sentence.getValue(assignment), value, sentence.toString());
+            }
+        }
+
+        // in a balanced conjunction of 1024 variables, a flip only goes up the 11 entries above the variable
+        LogicalSentence[] leaves = new LogicalSentence[1024];
+        String[] variables = new String[leaves.length];
+        for (int i = 0; i < leaves.length; i++) {
+            variables[i] = "v" + i;
+            leaves[i] = new LogicalSentence(variables[i]);
+        }
+        boolean[] values = new boolean[leaves.length];
+        Arrays.fill(values, true);
+        TruthAssignment assignment = new TruthAssignment(variables, values);
+        IncrementalEvaluator evaluator = new IncrementalEvaluator(all(leaves, 0, leaves.length), assignment);
+        assertTrue(evaluator.getValue());
+        assertFalse(evaluator.setValue("v517", false));
+        assertEquals(11, evaluator.updated);
+        // with v517 false, its sibling v516 being false too stops at the conjunction of the two
+        assertFalse(evaluator.setValue("v516", false));
+        assertEquals(2, evaluator.updated);
+        assertFalse(evaluator.setValue("v517", true));
+        assertEquals(2, evaluator.updated);
+        assertTrue(evaluator.setValue("v516", true));
+        assertEquals(11, evaluator.updated);
+        evaluator.setValue("v516", true);
+        assertEquals(0, evaluator.updated);
+        assertThrows(IllegalArgumentException.class, () -> evaluator.setValue("not a variable", true));
+    }
 }
@@ -2,7 +2,7 @@ package truth;
 
 import org.junit.jupiter.api.Test;
 
-import java.util.HashMap;
+import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -11,7 +11,10 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 public class TruthAssignment {
 
-    HashMap<String, Boolean> data;
+    // bit i of values is the value of the variable with id i in the SymbolTable, and bit i of defined is set if this
+    // assignment has a value for it at all
+    private long[] values;
+    private long[] defined;
 
     /**
      * The constructor takes an array of names and values to be stored conveniently for easy querying. The querying can
@@ -23,17 +26,39 @@ public class TruthAssignment {
      * @param values An array of booleans to act as values to each name
      */
     public TruthAssignment(String[] names, boolean[] values) {
-        this.data = new HashMap<>();
+        this.values = new long[0];
+        this.defined = new long[0];
 
         if (names.length != values.length) {
             throw new IllegalArgumentException("Arrays are of different sizes");
         }
 
         for (int i = 0; i < names.length; i++) {
-            if (data.containsKey(names[i])) {
+            int id = SymbolTable.id(names[i]);
+            if (contains(id)) {
                 throw new IllegalArgumentException("First argument contains duplicate keys");
             }
-            data.put(names[i], values[i]);
+            put(id, values[i]);
+        }
+    }
+
+    private boolean contains(int id) {
+        int word = id >>> 6;
+        return word < defined.length && (defined[word] >>> id & 1) != 0;
+    }
+
+    private void put(int id, boolean value) {
+        int word = id >>> 6;
+        if (word >= defined.length) {
+            int length = Math.max(word + 1, defined.length * 2);
+            values = Arrays.copyOf(values, length);
+            defined = Arrays.copyOf(defined, length);
+        }
+        defined[word] |= 1L << id;
+        if (value) {
+            values[word] |= 1L << id;
+        } else {
+            values[word] &= ~(1L << id);
         }
     }
 
@@ -43,10 +68,26 @@ public class TruthAssignment {
      * @return The value given for name
      */
     public boolean getValue(String name) {
-        if (!data.containsKey(name)) {
+        int id = SymbolTable.find(name);
+        if (id == -1) {
+            throw new IllegalArgumentException("Name is not a key");
+        }
+        return getValue(id);
+    }
+
+    /**
+     * Returns the value of the variable with the id {@link SymbolTable#id(String)} gives. This is what
+     * {@link LogicalSentence} uses, since it is just a bit test. If the variable does not exist, an
+     * {@link IllegalArgumentException} will be thrown.
+     * @param id The id of the variable
+     * @return The value given for the variable
+     */
+    public boolean getValue(int id) {
+        int word = id >>> 6;
+        if (word >= defined.length || (defined[word] >>> id & 1) == 0) {
             throw new IllegalArgumentException("Name is not a key");
         }
-        return data.get(name);
+        return (values[word] >>> id & 1) != 0;
     }
 
     /**
@@ -56,10 +97,11 @@ public class TruthAssignment {
      * @param value The new value that name should have
      */
     public void setValue(String name, boolean value) {
-        if (!data.containsKey(name)) {
+        int id = SymbolTable.find(name);
+        if (id == -1 || !contains(id)) {
             throw new IllegalArgumentException("Name is not a key");
         }
-        data.replace(name, value);
+        put(id, value);
     }
 
     /**
@@ -69,14 +111,25 @@ public class TruthAssignment {
      * @param value The value to give to name
      */
     public void addValue(String name, boolean value) {
-        if (data.containsKey(name)) {
+        int id = SymbolTable.id(name);
+        if (contains(id)) {
             throw new IllegalArgumentException("Name is a duplicate key");
         }
-        data.put(name, value);
+        put(id, value);
     }
 
     @Override
     public String toString() {
-        return data.toString();
+        StringBuilder out = new StringBuilder("{");
+        for (int word = 0; word < defined.length; word++) {
+            for (long bits = defined[word]; bits != 0; bits &= bits - 1) {
+                int id = word << 6 | Long.numberOfTrailingZeros(bits);
+                if (out.length() > 1) {
+                    out.append(", ");
+                }
+                out.append(SymbolTable.name(id)).append('=').append(getValue(id));
+            }
+        }
+        return out.append('}').toString();
     }
 }
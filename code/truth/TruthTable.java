@@ -0,0 +1,114 @@
+package truth;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The whole truth table of a {@link LogicalSentence}, with one bit for each of its 2^n rows. Instead of evaluating the
+ * sentence once per row, it is evaluated 64 rows at a time (see {@link BitSlicedProgram}), so a table for 25
+ * variables takes well under a second.
+ *
+ * <p>The variables are sorted alphabetically, and in row r variable i has the value of bit i of r. So row 0 is the
+ * row where every variable is false, and the last row is the one where every variable is true.
+ */
+public class TruthTable {
+
+    /**
+     * The most variables a table can have. A table for 36 variables already takes 8GB.
+     */
+    public static final int MAX_VARIABLES = 36;
+
+    private final String[] variables;
+    private final long rows;
+    private final long[] words;
+
+    /**
+     * Makes the truth table of sentence. Will throw {@link IllegalArgumentException} if the sentence has more than
+     * {@link #MAX_VARIABLES} variables.
+     * @param sentence The sentence to make the truth table of
+     */
+    public TruthTable(LogicalSentence sentence) {
+        BitSlicedProgram program = BitSlicedProgram.compile(sentence);
+        if (program.variableCount() > MAX_VARIABLES) {
+            throw new IllegalArgumentException(String.format("A truth table can have at most %d variables, not %d",
+                                                             MAX_VARIABLES, program.variableCount()));
+        }
+        this.variables = program.variables();
+        this.rows = 1L << variables.length;
+        this.words = new long[(int) ((rows + 63) >>> 6)];
+
+        long[] slots = program.newSlots();
+        for (int w = 0; w < words.length; w++) {
+            words[w] = program.evaluate(w, slots);
+        }
+        if (rows < 64) {
+            // with less than 6 variables, the bits past the last row are not part of the table
+            words[0] &= (1L << rows) - 1;
+        }
+    }
+
+    /**
+     * @return The names of the variables, in the order their bits are in the row numbers
+     */
+    public String[] getVariables() {
+        return variables.clone();
+    }
+
+    /**
+     * @return The amount of rows, which is 2^n for n variables
+     */
+    public long rows() {
+        return rows;
+    }
+
+    /**
+     * @param row The row, see {@link TruthTable}
+     * @return The value of the sentence in row
+     */
+    public boolean getValue(long row) {
+        if (row < 0 || row >= rows) {
+            throw new ArrayIndexOutOfBoundsException(String.format("Row %d is out of bounds for %d rows", row, rows));
+        }
+        return (words[(int) (row >>> 6)] >>> row & 1) == 1;
+    }
+
+    /**
+     * @param row The row, see {@link TruthTable}
+     * @return The values the variables have in row
+     */
+    public TruthAssignment getAssignment(long row) {
+        if (row < 0 || row >= rows) {
+            throw new ArrayIndexOutOfBoundsException(String.format("Row %d is out of bounds for %d rows", row, rows));
+        }
+        boolean[] values = new boolean[variables.length];
+        for (int i = 0; i < variables.length; i++) {
+            values[i] = (row >>> i & 1) == 1;
+        }
+        return new TruthAssignment(variables, values);
+    }
+
+    /**
+     * @return The amount of rows in which the sentence is true
+     */
+    public long countTrue() {
+        long count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @return The table packed into longs, where row r is bit r % 64 of long r / 64
+     */
+    public long[] toLongArray() {
+        return Arrays.copyOf(words, words.length);
+    }
+
+    /**
+     * @return The table as a {@link BitSet}, where bit r is set if the sentence is true in row r
+     */
+    public BitSet toBitSet() {
+        return BitSet.valueOf(words);
+    }
+}